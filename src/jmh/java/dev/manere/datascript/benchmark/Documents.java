@@ -0,0 +1,114 @@
+package dev.manere.datascript.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Generates synthetic DataScript documents of a given shape and size.
+ * Documents are seeded, so every run and every fork benchmarks the same text.
+ */
+public enum Documents {
+    /**
+     * Top-level scalars of every type.
+     */
+    FLAT {
+        @Override
+        void generate(final @NotNull StringBuilder out, final @NotNull SplittableRandom random, final int nodes) {
+            for (int i = 0; i < nodes; i++) scalar(out, random, "", "key" + i);
+        }
+    },
+
+    /**
+     * Chains of sixteen nested sections, each holding a few scalars.
+     */
+    DEEP {
+        @Override
+        void generate(final @NotNull StringBuilder out, final @NotNull SplittableRandom random, final int nodes) {
+            for (int chain = 0, count = 0; count < nodes; chain++) {
+                String indent = "";
+                int depth = 0;
+
+                for (; depth < 16 && count < nodes; depth++) {
+                    out.append(indent).append(depth == 0 ? "chain" + chain : "level" + depth).append(" {\n");
+                    indent += "  ";
+                    count++;
+
+                    for (int i = 0; i < 3 && count < nodes; i++, count++) scalar(out, random, indent, "key" + i);
+                }
+
+                while (depth-- > 0) {
+                    indent = indent.substring(2);
+                    out.append(indent).append("}\n");
+                }
+            }
+        }
+    },
+
+    /**
+     * Many top-level sections, each holding ten scalars.
+     */
+    WIDE {
+        @Override
+        void generate(final @NotNull StringBuilder out, final @NotNull SplittableRandom random, final int nodes) {
+            for (int section = 0; section < Math.max(1, nodes / 11); section++) {
+                out.append("section").append(section).append(" {\n");
+                for (int i = 0; i < 10; i++) scalar(out, random, "  ", "key" + i);
+                out.append("}\n");
+            }
+        }
+    },
+
+    /**
+     * Top-level lists of sixteen elements, alternating between numbers and strings.
+     */
+    LISTS {
+        @Override
+        void generate(final @NotNull StringBuilder out, final @NotNull SplittableRandom random, final int nodes) {
+            for (int list = 0; list < Math.max(1, nodes / 16); list++) {
+                out.append("list").append(list).append(" = [\n");
+
+                for (int i = 0; i < 16; i++) {
+                    out.append("  ");
+                    if (list % 2 == 0) out.append(random.nextInt(Integer.MAX_VALUE));
+                    else out.append('"').append("element ").append(random.nextInt(1000)).append('"');
+                    out.append(i < 15 ? ",\n" : "\n");
+                }
+
+                out.append("]\n");
+            }
+        }
+    };
+
+    /**
+     * Generates a document of roughly the given number of nodes, counting sections, scalars and list elements.
+     *
+     * @param nodes The number of nodes.
+     * @return The document.
+     */
+    @NotNull
+    public String generate(final int nodes) {
+        final StringBuilder out = new StringBuilder(nodes * 24);
+        generate(out, new SplittableRandom(nodes), nodes);
+        return out.toString();
+    }
+
+    abstract void generate(final @NotNull StringBuilder out, final @NotNull SplittableRandom random, final int nodes);
+
+    static void scalar(final @NotNull StringBuilder out, final @NotNull SplittableRandom random, final @NotNull String indent, final @NotNull String key) {
+        out.append(indent).append(key).append(" = ");
+
+        switch (random.nextInt(6)) {
+            // The format reads negative numbers as strings, so only non-negative ones are generated.
+            case 0 -> out.append(random.nextInt(Integer.MAX_VALUE));
+            case 1 -> out.append(random.nextLong(Long.MAX_VALUE)).append('L');
+            case 2 -> out.append(random.nextDouble()).append('D');
+            case 3 -> out.append(random.nextBoolean());
+            case 4 -> out.append("uuid('").append(new UUID(random.nextLong(), random.nextLong())).append("')");
+            default -> out.append('\'').append("value ").append(random.nextInt(1000)).append('\'');
+        }
+
+        out.append('\n');
+    }
+}
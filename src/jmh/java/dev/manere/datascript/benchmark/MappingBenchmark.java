@@ -0,0 +1,56 @@
+package dev.manere.datascript.benchmark;
+
+import dev.manere.datascript.api.ConfigSection;
+import dev.manere.datascript.api.RootSection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures key normalization and storing objects and records into a section.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+    private static final String[] NAMES = {"username", "maxPlayerCount", "HTTP_Server-Port", "lastLoginTime"};
+
+    private ConfigSection root;
+    private PlayerObject object;
+    private PlayerRecord record;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        root = new ConfigSection(new RootSection());
+        object = new PlayerObject();
+        record = new PlayerRecord("Manere_", 12, 3, 1_700_000_000_000L, true);
+    }
+
+    @Benchmark
+    public String normalizeNaming() {
+        if (++cursor == NAMES.length) cursor = 0;
+        return root.normalizeNaming(NAMES[cursor]);
+    }
+
+    @Benchmark
+    public void storeObject() {
+        root.store("player object", object);
+    }
+
+    @Benchmark
+    public void storeRecord() {
+        root.store("player record", record);
+    }
+
+    public static class PlayerObject {
+        private String username = "Manere_";
+        private int kills = 12;
+        private int deaths = 3;
+        private long lastLogin = 1_700_000_000_000L;
+        private boolean online = true;
+    }
+
+    public record PlayerRecord(String username, int kills, int deaths, long lastLogin, boolean online) {
+    }
+}
@@ -0,0 +1,85 @@
+package dev.manere.datascript.benchmark;
+
+import dev.manere.datascript.datascript.DataScriptConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a document into a tree, from a string and from a file, and writing it back to a string.
+ * <p>
+ * {@link #saveToString()} saves the same unchanged tree every time, so it only measures replaying the cached
+ * output of each section. {@link #saveToStringUncached(Uncached)} saves a freshly loaded tree, which nothing
+ * has been cached for, and measures serializing the whole document.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParseBenchmark {
+    @Param({"FLAT", "DEEP", "WIDE", "LISTS"})
+    public Documents shape;
+
+    @Param({"100", "10000"})
+    public int nodes;
+
+    private String document;
+    private File file;
+    private DataScriptConfiguration configuration;
+
+    @Setup
+    public void setup() throws IOException {
+        document = shape.generate(nodes);
+
+        file = File.createTempFile("benchmark", ".ds");
+        Files.writeString(file.toPath(), document);
+
+        configuration = DataScriptConfiguration.builder().file(file).build();
+        configuration.loadFromString(document);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public DataScriptConfiguration loadFromString() {
+        final DataScriptConfiguration loaded = DataScriptConfiguration.builder().file(file).build();
+        loaded.loadFromString(document);
+        return loaded;
+    }
+
+    @Benchmark
+    public DataScriptConfiguration loadFromDisk() {
+        final DataScriptConfiguration loaded = DataScriptConfiguration.builder().file(file).build();
+        loaded.loadFromDisk();
+        return loaded;
+    }
+
+    @Benchmark
+    public String saveToString() {
+        return configuration.saveToString();
+    }
+
+    @Benchmark
+    public String saveToStringUncached(final Uncached uncached) {
+        return uncached.configuration.saveToString();
+    }
+
+    /**
+     * A configuration loaded again before every invocation, so its sections hold no cached output.
+     */
+    @State(Scope.Thread)
+    public static class Uncached {
+        private DataScriptConfiguration configuration;
+
+        @Setup(Level.Invocation)
+        public void setup(final ParseBenchmark benchmark) {
+            configuration = DataScriptConfiguration.builder().file(benchmark.file).build();
+            configuration.loadFromString(benchmark.document);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package dev.manere.datascript.benchmark;
+
+import dev.manere.datascript.api.ConfigSection;
+import dev.manere.datascript.api.ConfigValue;
+import dev.manere.datascript.api.RootSection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading and replacing scalars in a small and in a large section.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SectionBenchmark {
+    @Param({"10", "10000"})
+    public int keys;
+
+    private ConfigSection section;
+    private String[] names;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        section = new ConfigSection(new RootSection());
+        names = new String[keys];
+
+        for (int i = 0; i < keys; i++) {
+            names[i] = "key" + i;
+            section.set(names[i], i);
+        }
+    }
+
+    @Benchmark
+    public ConfigValue<Object> value() {
+        return section.value(next());
+    }
+
+    @Benchmark
+    public void set() {
+        section.set(next(), cursor);
+    }
+
+    private String next() {
+        if (++cursor == names.length) cursor = 0;
+        return names[cursor];
+    }
+}
@@ -0,0 +1,51 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.IndexedSectionNode;
+import dev.manere.datascript.api.SectionNode;
+import dev.manere.datascript.benchmark.Documents;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-pass parser with the regex-based {@link LegacyParser} it replaced, on the same documents.
+ * Both build the same node types into a fresh section and nothing is merged or cached afterwards, so only
+ * parsing differs. Lives in the package of the parser to reach its tree builder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParserComparisonBenchmark {
+    @Param({"FLAT", "DEEP", "WIDE", "LISTS"})
+    public Documents shape;
+
+    @Param({"100", "10000"})
+    public int nodes;
+
+    private String document;
+
+    @Setup
+    public void setup() {
+        document = shape.generate(nodes);
+    }
+
+    @Benchmark
+    public SectionNode regex() {
+        final SectionNode root = new IndexedSectionNode("root");
+        LegacyParser.parse(document, root);
+        return root;
+    }
+
+    @Benchmark
+    public SectionNode scanner() throws IOException {
+        final SectionNode root = new IndexedSectionNode("root");
+
+        try (final DataScriptReader reader = new DataScriptReader(new StringReader(document))) {
+            reader.accept(new DataScriptTreeBuilder(root));
+        }
+
+        return root;
+    }
+}
@@ -0,0 +1,128 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the loads and saves requested through {@link Configuration#loadAsync()} and {@link Configuration#saveAsync()},
+ * folding concurrent requests together.
+ * <p>
+ * At most one operation of each kind runs per configuration. A request made while one runs is answered
+ * by a single follow-up operation shared with every other request made in the meantime, which starts
+ * once the running one completes. Every caller is thus answered by an operation that started after its
+ * request, so a save always writes what was set before it was requested, while a burst of requests
+ * costs at most two operations.
+ */
+@ApiStatus.Internal
+public final class AsyncOperations {
+    /**
+     * Runs every operation on its own virtual thread, so blocking I/O never occupies a pool thread.
+     */
+    public static final Executor VIRTUAL_THREADS = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("DataScript I/O-", 0).factory());
+
+    private static final ConcurrentHashMap<Key, State> STATES = new ConcurrentHashMap<>();
+
+    private AsyncOperations() {}
+
+    /**
+     * Requests an operation.
+     *
+     * @param configuration The configuration the operation applies to.
+     * @param save          Whether the operation is a save rather than a load.
+     * @param operation     The blocking operation.
+     * @param executor      The executor to run the operation on if a new one has to be started.
+     * @return A future completing once an operation that started after this request has completed.
+     */
+    @NotNull
+    public static CompletableFuture<Void> request(final @NotNull Configuration configuration, final boolean save, final @NotNull Runnable operation, final @NotNull Executor executor) {
+        final Key key = new Key(configuration, save);
+        final CompletableFuture<Void> requested = new CompletableFuture<>();
+
+        final State state = STATES.compute(key, (ignored, current) -> {
+            if (current == null) return new State(requested, null);
+            if (current.queued() == null) return new State(current.running(), new Operation(requested, operation, executor));
+            return current;
+        });
+
+        if (state.running() == requested) start(key, new Operation(requested, operation, executor));
+        return state.queued() == null ? state.running() : state.queued().future();
+    }
+
+    /**
+     * Runs an operation and then starts the follow-up operation queued meanwhile, if any.
+     * The executor is called outside of {@link ConcurrentHashMap#compute}, since it may run the operation
+     * right away, on a thread that then requests another one for the same key.
+     */
+    @ApiStatus.Internal
+    private static void start(final @NotNull Key key, final @NotNull Operation operation) {
+        try {
+            operation.executor().execute(() -> {
+                try {
+                    operation.body().run();
+                    operation.future().complete(null);
+                } catch (final Throwable throwable) {
+                    operation.future().completeExceptionally(throwable);
+                } finally {
+                    finished(key);
+                }
+            });
+        } catch (final RuntimeException e) {
+            operation.future().completeExceptionally(e);
+            finished(key);
+        }
+    }
+
+    @ApiStatus.Internal
+    private static void finished(final @NotNull Key key) {
+        while (true) {
+            final State current = STATES.get(key);
+
+            if (current.queued() == null) {
+                if (STATES.remove(key, current)) return;
+                continue;
+            }
+
+            if (STATES.replace(key, current, new State(current.queued().future(), null))) {
+                start(key, current.queued());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Identifies the operations of one kind on one configuration.
+     *
+     * @param configuration The configuration.
+     * @param save          Whether the operations are saves.
+     */
+    @ApiStatus.Internal
+    private record Key(@NotNull Configuration configuration, boolean save) {
+    }
+
+    /**
+     * The operation running for a key and the follow-up queued behind it.
+     *
+     * @param running The future of the running operation.
+     * @param queued  The follow-up, or null if none was requested.
+     */
+    @ApiStatus.Internal
+    private record State(@NotNull CompletableFuture<Void> running, @Nullable Operation queued) {
+    }
+
+    /**
+     * A requested operation.
+     *
+     * @param future   Completes once the operation completed.
+     * @param body     The blocking operation.
+     * @param executor The executor to run it on.
+     */
+    @ApiStatus.Internal
+    private record Operation(@NotNull CompletableFuture<Void> future, @NotNull Runnable body, @NotNull Executor executor) {
+    }
+}
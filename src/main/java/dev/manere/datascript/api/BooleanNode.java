@@ -0,0 +1,52 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scalar node holding a unboxed {@code boolean}.
+ */
+public final class BooleanNode extends PrimitiveNode<Boolean> {
+    private volatile boolean value;
+
+    /**
+     * Constructs a new node with the provided name and value.
+     *
+     * @param name The name of the node.
+     * @param value The initial value of this node.
+     */
+    public BooleanNode(final @NotNull String name, final boolean value) {
+        super(name);
+        this.value = value;
+    }
+
+    /**
+     * Retrieves the value of this node without boxing it.
+     *
+     * @return The current value of this node.
+     */
+    public boolean booleanValue() {
+        return value;
+    }
+
+    /**
+     * Sets the value of this node without boxing it, marking the section holding it as modified.
+     *
+     * @param value The new value to be set.
+     */
+    public void set(final boolean value) {
+        final boolean previous = this.value;
+        this.value = value;
+        changed(observed() ? (Object) previous : null);
+    }
+
+    @NotNull
+    @Override
+    public Boolean value() {
+        return value;
+    }
+
+    @Override
+    public void set(final @NotNull Boolean value) {
+        set(value.booleanValue());
+    }
+}
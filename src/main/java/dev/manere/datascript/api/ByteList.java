@@ -0,0 +1,136 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * List of byte values backed by a {@code byte[]}, so elements are not boxed while stored.
+ * <p>
+ * Homogeneous byte lists are loaded into this type. Reading through {@link #getByte(int)} or
+ * {@link #bytes()} never boxes; the {@link java.util.List} methods box on the way in and out.
+ * The list is copy-on-write: reads never lock and writes copy the array, so it can be shared between
+ * threads and iterated while it is modified.
+ */
+public final class ByteList extends PrimitiveList<Byte> {
+    private volatile byte[] values;
+
+    /**
+     * Constructs a new, empty list.
+     */
+    public ByteList() {
+        this(new byte[0]);
+    }
+
+    /**
+     * Constructs a new list backed by the given array, which must not be modified afterwards.
+     *
+     * @param values The elements of the list.
+     */
+    public ByteList(final byte @NotNull [] values) {
+        this.values = values;
+    }
+
+    /**
+     * Returns the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @return The element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public byte getByte(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Replaces the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @param value The new element.
+     * @return The previous element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public synchronized byte setByte(final int index, final byte value) {
+        final byte[] values = this.values.clone();
+        final byte previous = values[index];
+        values[index] = value;
+        this.values = values;
+        return previous;
+    }
+
+    /**
+     * Appends an element without boxing it.
+     *
+     * @param value The element to append.
+     */
+    public synchronized void addByte(final byte value) {
+        final byte[] values = Arrays.copyOf(this.values, this.values.length + 1);
+        values[values.length - 1] = value;
+        this.values = values;
+        modCount++;
+    }
+
+    /**
+     * Returns a sequential stream over the elements as they are when this is called.
+     *
+     * @return A stream of the elements.
+     */
+    @NotNull
+    public IntStream bytes() {
+        final byte[] values = this.values;
+        return IntStream.range(0, values.length).map(index -> values[index]);
+    }
+
+    /**
+     * Returns a copy of the elements.
+     *
+     * @return A new array holding the elements.
+     */
+    public byte @NotNull [] toByteArray() {
+        return values.clone();
+    }
+
+    @Override
+    public Byte get(final int index) {
+        return getByte(index);
+    }
+
+    @Override
+    public Byte set(final int index, final @NotNull Byte value) {
+        return setByte(index, value);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @NotNull
+    @Override
+    byte @NotNull [] array() {
+        return values;
+    }
+
+    @Override
+    void publish(final @NotNull Object array) {
+        values = (byte[]) array;
+    }
+
+    @NotNull
+    @Override
+    Object allocate(final int length) {
+        return new byte[length];
+    }
+
+    @NotNull
+    @Override
+    Byte element(final @NotNull Object array, final int index) {
+        return ((byte[]) array)[index];
+    }
+
+    @Override
+    void store(final @NotNull Object array, final int index, final @NotNull Byte value) {
+        ((byte[]) array)[index] = value;
+    }
+}
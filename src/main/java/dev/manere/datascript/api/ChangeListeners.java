@@ -0,0 +1,173 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Immutable set of the listeners registered on a {@link NodeSet}.
+ * <p>
+ * Registering or removing a listener builds a new instance that the set swaps in atomically, so
+ * dispatching only reads plain arrays and never takes a lock. While a thread {@link #hold() holds back}
+ * its changes, such as when applying a transaction, deliveries are queued until they are released.
+ *
+ * @param keys    Listeners of single keys, by key.
+ * @param subtree Listeners of every change in the section and its nested sections.
+ */
+@ApiStatus.Internal
+record ChangeListeners(@NotNull Map<String, Listener[]> keys, Listener @NotNull [] subtree) {
+    static final ChangeListeners EMPTY = new ChangeListeners(Map.of(), new Listener[0]);
+
+    private static final ThreadLocal<List<Runnable>> HELD = new ThreadLocal<>();
+
+    /**
+     * Starts queueing the changes dispatched on the current thread instead of delivering them.
+     *
+     * @return The queue, to be passed to {@link #release(List, boolean)}, or null if an enclosing caller holds changes back already.
+     */
+    @Nullable
+    static List<Runnable> hold() {
+        if (HELD.get() != null) return null;
+
+        final List<Runnable> held = new ArrayList<>();
+        HELD.set(held);
+        return held;
+    }
+
+    /**
+     * Stops queueing changes on the current thread, then delivers or discards the queued ones.
+     *
+     * @param held    The queue returned by {@link #hold()}.
+     * @param deliver Whether to deliver the queued changes, or drop them because they were undone.
+     */
+    static void release(final @Nullable List<Runnable> held, final boolean deliver) {
+        if (held == null) return;
+
+        HELD.remove();
+        if (deliver) for (final Runnable delivery : held) delivery.run();
+    }
+
+    /**
+     * Returns a copy with the given listener added.
+     *
+     * @param key      The key to listen to, or null to listen to the whole subtree.
+     * @param listener The listener.
+     * @return The new listeners.
+     */
+    @NotNull
+    ChangeListeners with(final @Nullable String key, final @NotNull Listener listener) {
+        if (key == null) return new ChangeListeners(keys, append(subtree, listener));
+
+        final Map<String, Listener[]> keys = new HashMap<>(this.keys);
+        keys.put(key, append(keys.getOrDefault(key, EMPTY.subtree), listener));
+        return new ChangeListeners(Map.copyOf(keys), subtree);
+    }
+
+    /**
+     * Returns a copy with the given listener removed.
+     *
+     * @param key      The key the listener was registered for, or null for the whole subtree.
+     * @param listener The listener.
+     * @return The new listeners, or null if none are left.
+     */
+    @Nullable
+    ChangeListeners without(final @Nullable String key, final @NotNull Listener listener) {
+        final ChangeListeners result;
+
+        if (key == null) {
+            result = new ChangeListeners(keys, remove(subtree, listener));
+        } else {
+            final Map<String, Listener[]> keys = new HashMap<>(this.keys);
+            final Listener[] remaining = remove(keys.getOrDefault(key, EMPTY.subtree), listener);
+
+            if (remaining.length == 0) keys.remove(key);
+            else keys.put(key, remaining);
+
+            result = new ChangeListeners(Map.copyOf(keys), subtree);
+        }
+
+        return result.keys.isEmpty() && result.subtree.length == 0 ? null : result;
+    }
+
+    /**
+     * Delivers a change to the listeners of its key and to the subtree listeners.
+     *
+     * @param key      The key of the changed node if it belongs to this set, or null for changes in nested sections.
+     * @param path     The path from this set to the changed node.
+     * @param previous The value before the change.
+     * @param current  The value after the change.
+     */
+    void dispatch(final @Nullable String key, final @NotNull List<String> path, final @Nullable Object previous, final @Nullable Object current) {
+        final Listener[] exact = key == null ? null : keys.get(key);
+        if (exact == null && subtree.length == 0) return;
+
+        final ConfigChange change = new ConfigChange(path, previous, current);
+
+        final List<Runnable> held = HELD.get();
+        if (held != null) held.add(() -> deliver(exact, change));
+        else deliver(exact, change);
+    }
+
+    @ApiStatus.Internal
+    private void deliver(final Listener @Nullable [] exact, final @NotNull ConfigChange change) {
+        if (exact != null) for (final Listener listener : exact) listener.deliver(change);
+        for (final Listener listener : subtree) listener.deliver(change);
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static Listener @NotNull [] append(final Listener @NotNull [] listeners, final @NotNull Listener listener) {
+        final Listener[] result = Arrays.copyOf(listeners, listeners.length + 1);
+        result[listeners.length] = listener;
+        return result;
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static Listener @NotNull [] remove(final Listener @NotNull [] listeners, final @NotNull Listener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] != listener) continue;
+
+            final Listener[] result = new Listener[listeners.length - 1];
+            System.arraycopy(listeners, 0, result, 0, i);
+            System.arraycopy(listeners, i + 1, result, i, result.length - i);
+            return result;
+        }
+
+        return listeners;
+    }
+
+    /**
+     * A registered listener.
+     *
+     * @param consumer The listener.
+     * @param executor The executor delivering events, or null to deliver them on the changing thread.
+     */
+    @ApiStatus.Internal
+    record Listener(@NotNull Consumer<ConfigChange> consumer, @Nullable Executor executor) {
+        /**
+         * Delivers a change. A listener that throws, or an executor that rejects the change, is reported
+         * to the uncaught exception handler of the current thread, so the change itself and the other
+         * listeners are not affected.
+         *
+         * @param change The change.
+         */
+        void deliver(final @NotNull ConfigChange change) {
+            try {
+                if (executor == null) consumer.accept(change);
+                else executor.execute(() -> consumer.accept(change));
+            } catch (final RuntimeException e) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scalar node holding a unboxed {@code char}.
+ */
+public final class CharNode extends PrimitiveNode<Character> {
+    private volatile char value;
+
+    /**
+     * Constructs a new node with the provided name and value.
+     *
+     * @param name The name of the node.
+     * @param value The initial value of this node.
+     */
+    public CharNode(final @NotNull String name, final char value) {
+        super(name);
+        this.value = value;
+    }
+
+    /**
+     * Retrieves the value of this node without boxing it.
+     *
+     * @return The current value of this node.
+     */
+    public char charValue() {
+        return value;
+    }
+
+    /**
+     * Sets the value of this node without boxing it, marking the section holding it as modified.
+     *
+     * @param value The new value to be set.
+     */
+    public void set(final char value) {
+        final char previous = this.value;
+        this.value = value;
+        changed(observed() ? (Object) previous : null);
+    }
+
+    @NotNull
+    @Override
+    public Character value() {
+        return value;
+    }
+
+    @Override
+    public void set(final @NotNull Character value) {
+        set(value.charValue());
+    }
+}
@@ -0,0 +1,28 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.List;
+
+/**
+ * Describes a change to a node, as delivered to listeners registered through {@link ConfigSection#listen}.
+ * <p>
+ * Values are the value of a scalar node, or a {@link ConfigSection} for section nodes.
+ *
+ * @param path     The keys leading from the section the listener was registered on to the changed node.
+ * @param previous The value before the change, or null if the node was added.
+ * @param current  The value after the change, or null if the node was removed.
+ */
+public record ConfigChange(@NotNull @Unmodifiable List<String> path, @Nullable Object previous, @Nullable Object current) {
+    /**
+     * Returns the key of the changed node.
+     *
+     * @return the last element of the path
+     */
+    @NotNull
+    public String key() {
+        return path.get(path.size() - 1);
+    }
+}
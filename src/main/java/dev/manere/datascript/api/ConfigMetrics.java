@@ -0,0 +1,76 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+
+/**
+ * Receives measurements of configurations: how long loads and saves take, how much they read and write,
+ * how large the loaded trees are and how lookups through {@link ConfigSection} resolve.
+ * <p>
+ * Every method does nothing by default, and nothing is measured until an implementation is installed
+ * through {@link #install(ConfigMetrics)}. Tree sizes are only counted while metrics are installed or
+ * the load event is enabled in a flight recording, since counting visits every loaded node.
+ * <p>
+ * Methods are called on the thread doing the work, including lookups on hot paths, so implementations
+ * should be cheap and thread-safe. {@link ConfigStatistics} is a ready-made implementation.
+ */
+public interface ConfigMetrics {
+    /**
+     * Metrics ignoring every measurement.
+     */
+    ConfigMetrics NOOP = new ConfigMetrics() {};
+
+    /**
+     * Returns the installed metrics.
+     *
+     * @return The installed metrics, or {@link #NOOP} if none are.
+     */
+    @NotNull
+    static ConfigMetrics installed() {
+        return MetricsHolder.installed;
+    }
+
+    /**
+     * Installs metrics for every configuration of the process, replacing the previous ones.
+     *
+     * @param metrics The metrics to install, or {@link #NOOP} to stop measuring.
+     */
+    static void install(final @NotNull ConfigMetrics metrics) {
+        MetricsHolder.installed = metrics;
+    }
+
+    /**
+     * Called once a configuration was parsed, before the parsed tree is applied to the live one.
+     * Sections that are loaded lazily are counted, but their contents are not.
+     *
+     * @param file     The file of the configuration.
+     * @param nanos    How long parsing took, including reading the file.
+     * @param bytes    The size of the parsed data, in characters when parsing a string.
+     * @param nodes    The number of nodes of the parsed tree, sections included.
+     * @param sections The number of sections of the parsed tree.
+     */
+    default void parsed(final @NotNull File file, final long nanos, final long bytes, final int nodes, final int sections) {}
+
+    /**
+     * Called once a configuration was serialized.
+     *
+     * @param file  The file of the configuration.
+     * @param nanos How long serializing took, including writing the file.
+     * @param bytes The size of the serialized data, in characters when serializing to a string.
+     */
+    default void serialized(final @NotNull File file, final long nanos, final long bytes) {}
+
+    /**
+     * Called when a value, list or primitive is looked up in a section.
+     *
+     * @param hit Whether the key exists.
+     */
+    default void lookup(final boolean hit) {}
+
+    /**
+     * Called when a lookup returns the fallback it was given, either because the key
+     * is missing or because its value has another type.
+     */
+    default void fallback() {}
+}
@@ -0,0 +1,288 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A dotted path such as {@code items.button1.slot}, parsed once and bound to a section, that remembers
+ * the node it resolved to.
+ * <p>
+ * The resolved node is reused for as long as no node was added, removed or replaced in any of the
+ * sections along the path, which is checked through one structural version per level. Setting a scalar
+ * or changing anything outside the path keeps the handle valid, so repeated reads of the same path cost
+ * a few field reads instead of a lookup and a {@link ConfigSection} per level. Handles are meant to be
+ * created once and kept, such as in a static field.
+ * <p>
+ * Paths going through sections that are not backed by a {@link NodeSet}, such as those of a snapshot,
+ * are resolved again on every read.
+ * <p>
+ * Handles are thread-safe.
+ */
+@SuppressWarnings("unchecked")
+public final class ConfigPath {
+    private final SectionNode root;
+    private final String[] keys;
+
+    private volatile Resolution resolution;
+
+    /**
+     * Constructs a new path.
+     *
+     * @param root The section the path starts from.
+     * @param keys The keys of the path.
+     */
+    private ConfigPath(final @NotNull SectionNode root, final String @NotNull [] keys) {
+        this.root = root;
+        this.keys = keys;
+    }
+
+    /**
+     * Parses a dotted path starting from the given section.
+     *
+     * @param section The section the path starts from.
+     * @param path    The keys of the path, separated by dots.
+     * @return The path.
+     * @throws IllegalArgumentException if the path has an empty key.
+     */
+    @NotNull
+    public static ConfigPath of(final @NotNull ConfigSection section, final @NotNull String path) {
+        return of(section, path.split("\\.", -1));
+    }
+
+    /**
+     * Creates a path from its keys, for keys that contain dots themselves.
+     *
+     * @param section The section the path starts from.
+     * @param keys    The keys of the path.
+     * @return The path.
+     * @throws IllegalArgumentException if there is no key or a key is empty.
+     */
+    @NotNull
+    public static ConfigPath of(final @NotNull ConfigSection section, final @NotNull String @NotNull ... keys) {
+        if (keys.length == 0) throw new IllegalArgumentException("A path needs at least one key");
+
+        final String[] interned = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].isEmpty()) throw new IllegalArgumentException("Empty key in path " + String.join(".", keys));
+            interned[i] = KeyPool.intern(keys[i]);
+        }
+
+        return new ConfigPath(section.section(), interned);
+    }
+
+    /**
+     * Returns the node at the end of the path.
+     *
+     * @return The node, or null if the path does not resolve.
+     */
+    @Nullable
+    public ConfigNode node() {
+        final Resolution resolution = this.resolution;
+        if (resolution != null && resolution.valid()) return resolution.node();
+
+        return resolve();
+    }
+
+    /**
+     * Returns the value of the scalar at the end of the path.
+     *
+     * @return The value, or null if the path does not resolve to a scalar.
+     */
+    @Nullable
+    public Object value() {
+        final ConfigNode node = lookup();
+        return node instanceof ScalarNode<?> scalar ? scalar.value() : null;
+    }
+
+    /**
+     * Returns the value of the scalar at the end of the path, or a fallback.
+     *
+     * @param fallback The value to return if the path does not resolve to a scalar.
+     * @param <T>      The type of the value.
+     * @return The value, or the fallback.
+     */
+    @NotNull
+    public <T> T value(final @NotNull T fallback) {
+        if (lookup() instanceof ScalarNode<?> scalar) return (T) scalar.value();
+
+        ConfigSection.fallback();
+        return fallback;
+    }
+
+    /**
+     * Returns the list at the end of the path.
+     *
+     * @param fallback The list to return if the path does not resolve to a scalar.
+     * @param <E>      The type of the elements.
+     * @return The list, or the fallback.
+     */
+    @NotNull
+    public <E> List<E> listValue(final @NotNull List<E> fallback) {
+        return value(fallback);
+    }
+
+    /**
+     * Returns an int value without boxing it, like {@link ConfigSection#getInt(String, int)}.
+     *
+     * @param fallback The value to return if the path does not resolve to an int.
+     * @return The value, or the fallback.
+     */
+    public int getInt(final int fallback) {
+        return ConfigSection.intValue(lookup(), fallback);
+    }
+
+    /**
+     * Returns a long value without boxing it, like {@link ConfigSection#getLong(String, long)}.
+     *
+     * @param fallback The value to return if the path does not resolve to a long.
+     * @return The value, or the fallback.
+     */
+    public long getLong(final long fallback) {
+        return ConfigSection.longValue(lookup(), fallback);
+    }
+
+    /**
+     * Returns a double value without boxing it, like {@link ConfigSection#getDouble(String, double)}.
+     *
+     * @param fallback The value to return if the path does not resolve to a number.
+     * @return The value, or the fallback.
+     */
+    public double getDouble(final double fallback) {
+        return ConfigSection.doubleValue(lookup(), fallback);
+    }
+
+    /**
+     * Returns a boolean value without boxing it, like {@link ConfigSection#getBoolean(String, boolean)}.
+     *
+     * @param fallback The value to return if the path does not resolve to a boolean.
+     * @return The value, or the fallback.
+     */
+    public boolean getBoolean(final boolean fallback) {
+        return ConfigSection.booleanValue(lookup(), fallback);
+    }
+
+    /**
+     * Returns the section at the end of the path.
+     *
+     * @return The section, or null if the path does not resolve to a section.
+     */
+    @Nullable
+    public ConfigSection section() {
+        return node() instanceof SectionNode section ? new ConfigSection(section) : null;
+    }
+
+    /**
+     * Sets the value at the end of the path, creating the sections along it as needed.
+     *
+     * @param value The value to set, or null to unset it.
+     * @param <T>   The type of the value.
+     * @see ConfigSection#set(String, Object)
+     */
+    public <T> void set(final @Nullable T value) {
+        ConfigSection section = new ConfigSection(root);
+        for (int i = 0; i < keys.length - 1; i++) section = section.sectionOrNew(keys[i]);
+
+        section.set(keys[keys.length - 1], value);
+    }
+
+    /**
+     * Returns the keys of the path.
+     *
+     * @return A copy of the keys.
+     */
+    @NotNull
+    public String @NotNull [] keys() {
+        return keys.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(".", keys);
+    }
+
+    /**
+     * Returns the node at the end of the path, reporting whether it exists to the installed metrics.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    private ConfigNode lookup() {
+        final ConfigNode node = node();
+        ConfigMetrics.installed().lookup(node != null);
+        return node;
+    }
+
+    /**
+     * Walks the path from the root. The structural version of each set is read before looking up its
+     * key, so a change racing with the walk leaves a resolution that is already stale rather than one
+     * that looks valid.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    private ConfigNode resolve() {
+        final NodeSet[] sets = new NodeSet[keys.length];
+        final int[] structures = new int[keys.length];
+
+        SectionNode section = root;
+        ConfigNode node = null;
+        int depth = 0;
+
+        while (true) {
+            if (!(section.nodes() instanceof NodeSet set)) {
+                // Nothing tells when this level changes, so the resolution cannot be kept.
+                resolution = null;
+                return walk(section, depth);
+            }
+
+            sets[depth] = set;
+            structures[depth] = set.structure();
+            node = set.get(keys[depth]);
+
+            if (++depth == keys.length) break;
+
+            if (!(node instanceof SectionNode child)) {
+                node = null;
+                break;
+            }
+
+            section = child;
+        }
+
+        resolution = new Resolution(Arrays.copyOf(sets, depth), Arrays.copyOf(structures, depth), node);
+        return node;
+    }
+
+    /**
+     * Walks the rest of the path without recording anything.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    private ConfigNode walk(SectionNode section, final int from) {
+        for (int depth = from; ; depth++) {
+            final ConfigNode node = section.node(keys[depth]);
+            if (depth == keys.length - 1) return node;
+            if (!(node instanceof SectionNode child)) return null;
+
+            section = child;
+        }
+    }
+
+    /**
+     * The node a path resolved to, along with the sets it went through and their structural versions
+     * at the time. A path that stopped early records the sets up to the one missing the key.
+     *
+     * @param sets       The sets along the path.
+     * @param structures The structural version of each set.
+     * @param node       The resolved node, or null if the path did not resolve.
+     */
+    @ApiStatus.Internal
+    private record Resolution(@NotNull NodeSet @NotNull [] sets, int @NotNull [] structures, @Nullable ConfigNode node) {
+        boolean valid() {
+            for (int i = 0; i < sets.length; i++) if (sets[i].structure() != structures[i]) return false;
+            return true;
+        }
+    }
+}
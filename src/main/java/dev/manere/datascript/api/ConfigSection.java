@@ -5,13 +5,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
@@ -20,6 +20,12 @@ import java.util.regex.Pattern;
  */
 @SuppressWarnings("unchecked")
 public record ConfigSection(@NotNull SectionNode section) {
+    private static final int NAMES_CACHED = 4096;
+    private static final ConcurrentHashMap<String, String> NAMES = new ConcurrentHashMap<>();
+    private static final Pattern CAMEL_CASE = Pattern.compile("(\\p{Ll})(\\p{Lu})");
+    private static final Pattern NOT_ALPHANUMERIC = Pattern.compile("[^a-z0-9 ]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     /**
      * Retrieves a configuration node by its key.
      *
@@ -29,19 +35,43 @@ public record ConfigSection(@NotNull SectionNode section) {
     @Nullable
     @ApiStatus.Internal
     private ConfigNode node(final @NotNull String key) {
-        for (final ConfigNode node : section.nodes()) if (node.name().equals(key)) return node;
-        return null;
+        return section.node(key);
+    }
+
+    /**
+     * Retrieves a configuration node by its key for reading its value, reporting whether it exists to the installed metrics.
+     *
+     * @param key the key of the node
+     * @return the corresponding ConfigNode, or null if not found
+     */
+    @Nullable
+    @ApiStatus.Internal
+    private ConfigNode lookup(final @NotNull String key) {
+        final ConfigNode node = section.node(key);
+        ConfigMetrics.installed().lookup(node != null);
+        return node;
+    }
+
+    /**
+     * Reports a lookup returning its fallback to the installed metrics.
+     */
+    @ApiStatus.Internal
+    static void fallback() {
+        ConfigMetrics.installed().fallback();
     }
 
     /**
      * Retrieves a list of values from the configuration node associated with the key.
+     * Loaded lists holding only ints, longs, doubles, shorts or bytes are backed by a primitive
+     * array, such as {@link IntList}, and only accept elements of that type. These lists are copy-on-write,
+     * so they can be read and iterated from any thread without locking.
      *
      * @param key the key of the configuration node
      * @return the list of values, or an empty synchronized list if not found
      */
     @NotNull
     public List<Object> listValue(final @NotNull String key) {
-        final ConfigNode node = node(key);
+        final ConfigNode node = lookup(key);
         if (node == null) return Collections.synchronizedList(new ArrayList<>());
 
         return node instanceof ScalarNode<?> scalar ? (List<Object>) scalar.value() : Collections.synchronizedList(new ArrayList<>());
@@ -57,10 +87,11 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @NotNull
     public <E> List<E> listValue(final @NotNull String key, final @NotNull List<E> fallback) {
-        final ConfigNode node = node(key);
-        if (node == null) return fallback;
+        final ConfigNode node = lookup(key);
+        if (node instanceof ScalarNode<?> scalar) return (List<E>) scalar.value();
 
-        return node instanceof ScalarNode<?> scalar ? (List<E>) scalar.value() : fallback;
+        fallback();
+        return fallback;
     }
 
     /**
@@ -73,7 +104,7 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @NotNull
     public <E> List<E> listValue(final @NotNull String key, final @NotNull Class<E> ignoredElementType) {
-        final ConfigNode node = node(key);
+        final ConfigNode node = lookup(key);
         if (node == null) return Collections.synchronizedList(new ArrayList<>());
 
         return node instanceof ScalarNode<?> scalar ? (List<E>) scalar.value() : Collections.synchronizedList(new ArrayList<>());
@@ -90,10 +121,11 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @NotNull
     public <E> List<E> listValue(final @NotNull String key, final @NotNull Class<E> ignoredElementType, final @NotNull List<E> fallback) {
-        final ConfigNode node = node(key);
-        if (node == null) return fallback;
+        final ConfigNode node = lookup(key);
+        if (node instanceof ScalarNode<?> scalar) return (List<E>) scalar.value();
 
-        return node instanceof ScalarNode<?> scalar ? (List<E>) scalar.value() : fallback;
+        fallback();
+        return fallback;
     }
 
     /**
@@ -104,7 +136,7 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @Nullable
     public ConfigValue<@NotNull Object> value(final @NotNull String key) {
-        final ConfigNode node = node(key);
+        final ConfigNode node = lookup(key);
         if (node == null) return null;
 
         return node instanceof ScalarNode<?> scalar ? new ConfigValue<>(scalar.value()) : null;
@@ -120,10 +152,11 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @NotNull
     public <T> ConfigValue<@NotNull T> value(final @NotNull String key, final @NotNull T fallback) {
-        final ConfigNode node = node(key);
-        if (node == null) return new ConfigValue<>(fallback);
+        final ConfigNode node = lookup(key);
+        if (node instanceof ScalarNode<?> scalar) return (ConfigValue<T>) new ConfigValue<>(scalar.value());
 
-        return node instanceof ScalarNode<?> scalar ? (ConfigValue<T>) new ConfigValue<>(scalar.value()) : new ConfigValue<>(fallback);
+        fallback();
+        return new ConfigValue<>(fallback);
     }
 
     /**
@@ -136,7 +169,7 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @Nullable
     public <T> ConfigValue<@NotNull T> value(final @NotNull String key, final @NotNull Class<T> ignoredType) {
-        final ConfigNode node = node(key);
+        final ConfigNode node = lookup(key);
         if (node == null) return null;
 
         return node instanceof ScalarNode<?> scalar ? (ConfigValue<T>) new ConfigValue<>(scalar.value()) : null;
@@ -153,51 +186,228 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @NotNull
     public <T> ConfigValue<@NotNull T> value(final @NotNull String key, final @NotNull Class<T> ignoredType, final @NotNull T fallback) {
-        final ConfigNode node = node(key);
-        if (node == null) return new ConfigValue<>(fallback);
+        final ConfigNode node = lookup(key);
+        if (node instanceof ScalarNode<?> scalar) return (ConfigValue<T>) new ConfigValue<>(scalar.value());
+
+        fallback();
+        return new ConfigValue<>(fallback);
+    }
+
+    /**
+     * Retrieves an int value without boxing it. Short and byte values are widened.
+     *
+     * @param key the key of the configuration node
+     * @param fallback the value to return if the key is not found or does not hold an int
+     * @return the value, or the fallback
+     */
+    public int getInt(final @NotNull String key, final int fallback) {
+        return intValue(lookup(key), fallback);
+    }
+
+    /**
+     * Retrieves a long value without boxing it. Int, short and byte values are widened.
+     *
+     * @param key the key of the configuration node
+     * @param fallback the value to return if the key is not found or does not hold a long
+     * @return the value, or the fallback
+     */
+    public long getLong(final @NotNull String key, final long fallback) {
+        return longValue(lookup(key), fallback);
+    }
+
+    /**
+     * Retrieves a double value without boxing it. Every other numeric value is widened,
+     * so {@code scale = 2} reads as 2.0.
+     *
+     * @param key the key of the configuration node
+     * @param fallback the value to return if the key is not found or is not numeric
+     * @return the value, or the fallback
+     */
+    public double getDouble(final @NotNull String key, final double fallback) {
+        return doubleValue(lookup(key), fallback);
+    }
+
+    /**
+     * Retrieves a short value without boxing it. Byte values are widened.
+     *
+     * @param key the key of the configuration node
+     * @param fallback the value to return if the key is not found or does not hold a short
+     * @return the value, or the fallback
+     */
+    public short getShort(final @NotNull String key, final short fallback) {
+        return shortValue(lookup(key), fallback);
+    }
+
+    /**
+     * Retrieves a byte value without boxing it.
+     *
+     * @param key the key of the configuration node
+     * @param fallback the value to return if the key is not found or does not hold a byte
+     * @return the value, or the fallback
+     */
+    public byte getByte(final @NotNull String key, final byte fallback) {
+        return byteValue(lookup(key), fallback);
+    }
 
-        return node instanceof ScalarNode<?> scalar ? (ConfigValue<T>) new ConfigValue<>(scalar.value()) : new ConfigValue<>(fallback);
+    /**
+     * Retrieves a char value without boxing it.
+     *
+     * @param key the key of the configuration node
+     * @param fallback the value to return if the key is not found or does not hold a char
+     * @return the value, or the fallback
+     */
+    public char getChar(final @NotNull String key, final char fallback) {
+        return charValue(lookup(key), fallback);
     }
 
     /**
-     * Renames a configuration node.
+     * Retrieves a boolean value without boxing it.
+     *
+     * @param key the key of the configuration node
+     * @param fallback the value to return if the key is not found or does not hold a boolean
+     * @return the value, or the fallback
+     */
+    public boolean getBoolean(final @NotNull String key, final boolean fallback) {
+        return booleanValue(lookup(key), fallback);
+    }
+
+    /**
+     * Converts a node to an int the way {@link #getInt(String, int)} does.
+     */
+    @ApiStatus.Internal
+    static int intValue(final @Nullable ConfigNode node, final int fallback) {
+        if (node instanceof IntNode primitive) return primitive.intValue();
+        if (node instanceof ShortNode primitive) return primitive.shortValue();
+        if (node instanceof ByteNode primitive) return primitive.byteValue();
+
+        if (node instanceof ScalarNode<?> scalar && (scalar.value() instanceof Integer || scalar.value() instanceof Short || scalar.value() instanceof Byte)) {
+            return ((Number) scalar.value()).intValue();
+        }
+
+        fallback();
+        return fallback;
+    }
+
+    /**
+     * Converts a node to a long the way {@link #getLong(String, long)} does.
+     */
+    @ApiStatus.Internal
+    static long longValue(final @Nullable ConfigNode node, final long fallback) {
+        if (node instanceof LongNode primitive) return primitive.longValue();
+        if (node instanceof IntNode primitive) return primitive.intValue();
+        if (node instanceof ShortNode primitive) return primitive.shortValue();
+        if (node instanceof ByteNode primitive) return primitive.byteValue();
+
+        if (node instanceof ScalarNode<?> scalar && (scalar.value() instanceof Long || scalar.value() instanceof Integer || scalar.value() instanceof Short || scalar.value() instanceof Byte)) {
+            return ((Number) scalar.value()).longValue();
+        }
+
+        fallback();
+        return fallback;
+    }
+
+    /**
+     * Converts a node to a double the way {@link #getDouble(String, double)} does.
+     */
+    @ApiStatus.Internal
+    static double doubleValue(final @Nullable ConfigNode node, final double fallback) {
+        if (node instanceof DoubleNode primitive) return primitive.doubleValue();
+        if (node instanceof IntNode primitive) return primitive.intValue();
+        if (node instanceof LongNode primitive) return primitive.longValue();
+        if (node instanceof ShortNode primitive) return primitive.shortValue();
+        if (node instanceof ByteNode primitive) return primitive.byteValue();
+
+        if (node instanceof ScalarNode<?> scalar && scalar.value() instanceof Number number) return number.doubleValue();
+
+        fallback();
+        return fallback;
+    }
+
+    /**
+     * Converts a node to a short the way {@link #getShort(String, short)} does.
+     */
+    @ApiStatus.Internal
+    static short shortValue(final @Nullable ConfigNode node, final short fallback) {
+        if (node instanceof ShortNode primitive) return primitive.shortValue();
+        if (node instanceof ByteNode primitive) return primitive.byteValue();
+
+        if (node instanceof ScalarNode<?> scalar && (scalar.value() instanceof Short || scalar.value() instanceof Byte)) {
+            return ((Number) scalar.value()).shortValue();
+        }
+
+        fallback();
+        return fallback;
+    }
+
+    /**
+     * Converts a node to a byte the way {@link #getByte(String, byte)} does.
+     */
+    @ApiStatus.Internal
+    static byte byteValue(final @Nullable ConfigNode node, final byte fallback) {
+        if (node instanceof ByteNode primitive) return primitive.byteValue();
+        if (node instanceof ScalarNode<?> scalar && scalar.value() instanceof Byte value) return value;
+
+        fallback();
+        return fallback;
+    }
+
+    /**
+     * Converts a node to a char the way {@link #getChar(String, char)} does.
+     */
+    @ApiStatus.Internal
+    static char charValue(final @Nullable ConfigNode node, final char fallback) {
+        if (node instanceof CharNode primitive) return primitive.charValue();
+        if (node instanceof ScalarNode<?> scalar && scalar.value() instanceof Character value) return value;
+
+        fallback();
+        return fallback;
+    }
+
+    /**
+     * Converts a node to a boolean the way {@link #getBoolean(String, boolean)} does.
+     */
+    @ApiStatus.Internal
+    static boolean booleanValue(final @Nullable ConfigNode node, final boolean fallback) {
+        if (node instanceof BooleanNode primitive) return primitive.booleanValue();
+        if (node instanceof ScalarNode<?> scalar && scalar.value() instanceof Boolean value) return value;
+
+        fallback();
+        return fallback;
+    }
+
+    /**
+     * Renames a configuration node. A renamed section keeps its contents, so listeners registered
+     * on it and {@link ConfigSection} handles to it keep working under the new key.
      *
      * @param key the current key of the configuration node
      * @param newKey the new key to rename to
      */
     public void rename(final @NotNull String key, final @NotNull String newKey) {
-        final ConfigNode node = node(key);
-        if (node == null) return;
-
-        section.nodes().remove(node);
-
-        if (node instanceof ScalarNode<?> scalarNode) {
-            section.nodes().add(new ScalarNode<Object>(scalarNode.value()) {
-                @NotNull
-                public String name() {
-                    return newKey;
-                }
-            });
-        } else if (node instanceof SectionNode sectionNode) {
-            section.nodes().add(new SectionNode() {
-                private final Set<ConfigNode> nodes = Collections.newSetFromMap(new ConcurrentHashMap<>());
-
-                {
-                    nodes.addAll(sectionNode.nodes());
-                }
-
-                @NotNull
-                @Override
-                public Set<ConfigNode> nodes() {
-                    return nodes;
-                }
-
-                @NotNull
-                @Override
-                public String name() {
-                    return newKey;
-                }
-            });
+        final List<Runnable> events = ChangeListeners.hold();
+        final ReentrantLock lock = SectionLocks.of(section);
+        lock.lock();
+
+        try {
+            final ConfigNode node = node(key);
+            if (node == null) return;
+
+            // Add the renamed node first, so concurrent readers never find neither key.
+            if (node instanceof ScalarNode<?> scalarNode) {
+                section.nodes().add(ScalarNode.of(KeyPool.intern(newKey), scalarNode.value()));
+            } else if (node instanceof SectionNode sectionNode) {
+                // Moving the child set keeps the listeners and handles registered on the section.
+                final IndexedSectionNode renamed = sectionNode.nodes() instanceof NodeSet && sectionNode instanceof IndexedSectionNode indexed
+                    ? new IndexedSectionNode(KeyPool.intern(newKey), indexed.set())
+                    : new IndexedSectionNode(KeyPool.intern(newKey));
+                if (renamed.set() != sectionNode.nodes()) renamed.nodes().addAll(sectionNode.nodes());
+
+                section.nodes().add(renamed);
+            }
+
+            section.nodes().remove(node);
+        } finally {
+            lock.unlock();
+            ChangeListeners.release(events, true);
         }
     }
 
@@ -215,20 +425,33 @@ public record ConfigSection(@NotNull SectionNode section) {
             return;
         }
 
+        final List<Runnable> events = ChangeListeners.hold();
+        final ReentrantLock lock = SectionLocks.of(section);
+        lock.lock();
+
+        try {
+            update(key, value);
+        } finally {
+            lock.unlock();
+            ChangeListeners.release(events, true);
+        }
+    }
+
+    @ApiStatus.Internal
+    private <T> void update(final @NotNull String key, final @NotNull T value) {
         final ConfigNode node = node(key);
 
         if (node == null) {
             create(key, value);
         } else {
+            // Creating a node replaces the old one in a single step, so the key never goes missing.
             if (node instanceof ScalarNode<?>) try {
                 final ScalarNode<T> scalar = (ScalarNode<T>) node;
                 scalar.set(value);
             } catch (final Exception e) {
-                unset(key);
                 create(key, value);
             }
             else {
-                unset(key);
                 create(key, value);
             }
         }
@@ -243,12 +466,7 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @ApiStatus.Internal
     private <T> void create(final @NotNull String key, final @NotNull T value) {
-        section.nodes().add(new ScalarNode<>(value) {
-            @NotNull
-            public String name() {
-                return key;
-            }
-        });
+        section.nodes().add(ScalarNode.of(KeyPool.intern(key), value));
     }
 
     /**
@@ -257,10 +475,17 @@ public record ConfigSection(@NotNull SectionNode section) {
      * @param key the key of the configuration node to remove
      */
     public void unset(final @NotNull String key) {
-        final ConfigNode node = node(key);
-        if (node == null) return;
-
-        section.nodes().remove(node);
+        final List<Runnable> events = ChangeListeners.hold();
+        final ReentrantLock lock = SectionLocks.of(section);
+        lock.lock();
+
+        try {
+            final ConfigNode node = node(key);
+            if (node != null) section.nodes().remove(node);
+        } finally {
+            lock.unlock();
+            ChangeListeners.release(events, true);
+        }
     }
 
     /**
@@ -275,6 +500,20 @@ public record ConfigSection(@NotNull SectionNode section) {
         return node instanceof SectionNode sectionNode ? new ConfigSection(sectionNode) : null;
     }
 
+    /**
+     * Parses a dotted path starting from this section into a handle that caches the node it resolves to.
+     * Keep the handle to read the same path repeatedly.
+     *
+     * @param path the keys of the path, separated by dots
+     * @return the path handle
+     * @throws IllegalArgumentException if the path has an empty key
+     * @see ConfigPath
+     */
+    @NotNull
+    public ConfigPath path(final @NotNull String path) {
+        return ConfigPath.of(this, path);
+    }
+
     /**
      * Creates a new section with the specified key. If a section already exists with the key, it is returned.
      *
@@ -289,24 +528,23 @@ public record ConfigSection(@NotNull SectionNode section) {
         final ConfigSection sectionFound = section(key);
         if (sectionFound != null) return sectionFound;
 
-        final SectionNode sectionNode = new SectionNode() {
-            private final Set<ConfigNode> nodes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        final List<Runnable> events = ChangeListeners.hold();
+        final ReentrantLock lock = SectionLocks.of(section);
+        lock.lock();
 
-            @NotNull
+        try {
+            // Another thread may have created it in the meantime.
+            final ConfigSection created = section(key);
+            if (created != null) return created;
 
-            public Set<ConfigNode> nodes() {
-                return nodes;
-            }
-
-            @NotNull
-
-            public String name() {
-                return key;
-            }
-        };
+            final SectionNode sectionNode = new IndexedSectionNode(KeyPool.intern(key));
 
-        section.nodes().add(sectionNode);
-        return new ConfigSection(sectionNode);
+            section.nodes().add(sectionNode);
+            return new ConfigSection(sectionNode);
+        } finally {
+            lock.unlock();
+            ChangeListeners.release(events, true);
+        }
     }
 
     /**
@@ -337,6 +575,127 @@ public record ConfigSection(@NotNull SectionNode section) {
         return keys;
     }
 
+    /**
+     * Applies several changes, possibly across subsections, as one atomic operation. The body records
+     * changes on the given {@link Transaction}; they are applied once it returns, while holding the locks
+     * of every section involved. Nothing is applied if the body throws.
+     *
+     * @param body records the changes
+     */
+    public void transaction(final @NotNull Consumer<Transaction> body) {
+        Transaction.run(this, body);
+    }
+
+    /**
+     * Registers a listener called whenever the node under the given key is added, removed, replaced
+     * or set, including through reloads. The listener runs on the thread making the change, once the change
+     * is applied and its section lock released, so it never holds up writers of other sections; it does hold
+     * up the call that made the change until it returns, so use {@link #listen(String, Consumer, Executor)}
+     * for slow listeners. Exceptions thrown by a listener go to the uncaught exception handler of that thread
+     * and do not undo the change.
+     *
+     * @param key      the key to listen to
+     * @param listener the listener
+     * @return a subscription removing the listener
+     * @throws UnsupportedOperationException if the section is not backed by a {@link NodeSet}
+     */
+    @NotNull
+    public Subscription listen(final @NotNull String key, final @NotNull Consumer<ConfigChange> listener) {
+        return set().subscribe(key, listener, null);
+    }
+
+    /**
+     * Registers a listener called on the given executor whenever the node under the given key is added,
+     * removed, replaced or set, including through reloads.
+     *
+     * @param key      the key to listen to
+     * @param listener the listener
+     * @param executor the executor delivering changes
+     * @return a subscription removing the listener
+     * @throws UnsupportedOperationException if the section is not backed by a {@link NodeSet}
+     */
+    @NotNull
+    public Subscription listen(final @NotNull String key, final @NotNull Consumer<ConfigChange> listener, final @NotNull Executor executor) {
+        return set().subscribe(key, listener, executor);
+    }
+
+    /**
+     * Registers a listener called for every change in this section and its nested sections.
+     * The listener runs on the thread making the change once its section lock is released, and holds up the
+     * call that made the change until it returns, so use {@link #listen(Consumer, Executor)} for slow listeners.
+     * Exceptions thrown by a listener go to the uncaught exception handler of that thread and do not undo the change.
+     *
+     * @param listener the listener
+     * @return a subscription removing the listener
+     * @throws UnsupportedOperationException if the section is not backed by a {@link NodeSet}
+     */
+    @NotNull
+    public Subscription listen(final @NotNull Consumer<ConfigChange> listener) {
+        return set().subscribe(null, listener, null);
+    }
+
+    /**
+     * Registers a listener called on the given executor for every change in this section and its nested sections.
+     *
+     * @param listener the listener
+     * @param executor the executor delivering changes
+     * @return a subscription removing the listener
+     * @throws UnsupportedOperationException if the section is not backed by a {@link NodeSet}
+     */
+    @NotNull
+    public Subscription listen(final @NotNull Consumer<ConfigChange> listener, final @NotNull Executor executor) {
+        return set().subscribe(null, listener, executor);
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private NodeSet set() {
+        if (section.nodes() instanceof NodeSet set) return set;
+        throw new UnsupportedOperationException("Section " + section.name() + " does not support listeners");
+    }
+
+    /**
+     * Returns an immutable copy of this section and everything below it. Snapshots can be read from any
+     * number of threads without locking and never change, while writes and reloads keep going to this section.
+     * Taking a snapshot of an unchanged section returns the previous one, and only changed sections are copied.
+     * Lists are copied too; modifying a snapshot throws {@link UnsupportedOperationException}.
+     * Every lazily loaded section below this one is loaded, since the snapshot must hold its contents.
+     *
+     * @return the snapshot
+     */
+    @NotNull
+    public ConfigSection snapshot() {
+        return new ConfigSection(FrozenSectionNode.of(section));
+    }
+
+    /**
+     * Returns a hash of the contents of this section, nested sections included. Sections with equal
+     * contents hash the same regardless of their name or of the order their nodes were added in.
+     * <p>
+     * Hashes are cached per section and recomputed only for sections that changed since, so hashing
+     * a large tree after a small change is cheap. Lazy sections are loaded.
+     *
+     * @return the content hash
+     */
+    public long contentHash() {
+        return ContentHash.of(section);
+    }
+
+    /**
+     * Lists the differences between this section and another one. Nested sections whose
+     * {@link #contentHash()} matches on both sides are skipped without being compared.
+     * <p>
+     * A change has no previous value for an added node and no current value for a removed one. Added
+     * and removed sections are reported once, with a {@link ConfigSection} as value, rather than once per nested node.
+     *
+     * @param other the section to compare with, considered the newer one
+     * @return the changes, sorted by path
+     */
+    @NotNull
+    public List<ConfigChange> diff(final @NotNull ConfigSection other) {
+        return SectionDiff.of(section, other.section);
+    }
+
     /**
      * Checks if this section is the root section.
      *
@@ -348,33 +707,30 @@ public record ConfigSection(@NotNull SectionNode section) {
 
     /**
      * Stores the fields of a given object into the configuration section under a specified section key.
+     * Records are stored by their components. Fields and components annotated with {@link IgnoreField} are skipped.
      *
      * @param sectionKey the key of the section
      * @param object     the object to store fields from
      */
     public void store(final @NotNull String sectionKey, final @NotNull Object object) {
-        final Class<?> clazz = object.getClass();
-
-        section(sectionKey, section -> {
-            if (clazz.isRecord()) {
-                for (final RecordComponent component : clazz.getRecordComponents()) {
-                    if (component.isAnnotationPresent(IgnoreField.class)) continue;
-
-                    section.set(normalizeNaming(component.getName()), component.getAccessor().getDefaultValue());
-                }
-            }
-
-            for (final Field field : clazz.getDeclaredFields()) {
-                field.setAccessible(true);
-
-                if (field.isAnnotationPresent(IgnoreField.class)) continue;
+        final ObjectCodec codec = ObjectCodec.of(object.getClass());
+        section(sectionKey, section -> codec.store(object, section));
+    }
 
-                try {
-                    section.set(normalizeNaming(field.getName()), field.get(object));
-                } catch (final IllegalAccessException ignored) {
-                }
-            }
-        });
+    /**
+     * Loads an object previously stored with {@link #store(String, Object)} from the section under the specified key.
+     * Records are created through their canonical constructor, other classes through their no-argument constructor.
+     *
+     * @param sectionKey the key of the section
+     * @param type       the class of the object
+     * @param <T>        the type of the object
+     * @return the loaded object, or null if the section does not exist
+     * @throws IllegalArgumentException if the class cannot be constructed or a value does not match its field type
+     */
+    @Nullable
+    public <T> T load(final @NotNull String sectionKey, final @NotNull Class<T> type) {
+        final ConfigSection section = section(sectionKey);
+        return section == null ? null : ObjectCodec.of(type).load(section);
     }
 
     /**
@@ -414,19 +770,74 @@ public record ConfigSection(@NotNull SectionNode section) {
      */
     @NotNull
     public String normalizeNaming(@NotNull String input) {
+        return normalize(input);
+    }
+
+    /**
+     * Normalizes a name in a single pass. Names holding characters outside of ASCII go through
+     * the regular expressions this replaces, which handle every Unicode letter.
+     * Results are cached, up to {@value #NAMES_CACHED} names.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    static String normalize(final @NotNull String input) {
         if (input.isEmpty() || input.isBlank()) return input;
 
+        final String cached = NAMES.get(input);
+        if (cached != null) return cached;
+
+        final String normalized = normalizeAscii(input);
+        if (NAMES.size() < NAMES_CACHED) NAMES.putIfAbsent(input, normalized);
+
+        return normalized;
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static String normalizeAscii(final @NotNull String input) {
+        final int length = input.length();
+        final char[] normalized = new char[length * 2];
+        int size = 0;
+        boolean space = false;
+        char previous = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char c = input.charAt(i);
+            if (c >= 0x80) return normalizeUnicode(input);
+
+            // A space goes before an uppercase letter following a lowercase one.
+            if (c >= 'A' && c <= 'Z' && previous >= 'a' && previous <= 'z') space = true;
+            previous = c;
+
+            final char lower = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+
+            if ((lower >= 'a' && lower <= 'z') || (lower >= '0' && lower <= '9')) {
+                if (space && size > 0) normalized[size++] = ' ';
+                space = false;
+                normalized[size++] = lower;
+            } else {
+                // Anything else collapses into a single space, dropped at either end.
+                space = true;
+            }
+        }
+
+        return new String(normalized, 0, size);
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static String normalizeUnicode(final @NotNull String input) {
         // Insert space before uppercase letters
-        final String spacedOut = input.replaceAll("(\\p{Ll})(\\p{Lu})", "$1 $2");
+        final String spacedOut = CAMEL_CASE.matcher(input).replaceAll("$1 $2");
 
         // Convert to lowercase
         final String lowercased = spacedOut.toLowerCase();
 
         // Replace non-alphanumeric characters (except spaces) with spaces
-        final String normalized = lowercased.replaceAll("[^a-z0-9 ]", " ");
+        final String normalized = NOT_ALPHANUMERIC.matcher(lowercased).replaceAll(" ");
 
         // Replace multiple spaces with a single space and trim
-        return normalized.replaceAll("\\s+", " ").trim();
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
     }
 
     /**
@@ -0,0 +1,151 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ConfigMetrics} keeping running totals, meant to be installed once and polled by a metrics exporter.
+ * Counters are striped, so concurrent lookups do not contend on them.
+ */
+public final class ConfigStatistics implements ConfigMetrics {
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder saves = new LongAdder();
+    private final LongAdder saveNanos = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    private volatile int nodes;
+    private volatile int sections;
+
+    @Override
+    public void parsed(final @NotNull File file, final long nanos, final long bytes, final int nodes, final int sections) {
+        loads.increment();
+        loadNanos.add(nanos);
+        bytesRead.add(bytes);
+
+        this.nodes = nodes;
+        this.sections = sections;
+    }
+
+    @Override
+    public void serialized(final @NotNull File file, final long nanos, final long bytes) {
+        saves.increment();
+        saveNanos.add(nanos);
+        bytesWritten.add(bytes);
+    }
+
+    @Override
+    public void lookup(final boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    @Override
+    public void fallback() {
+        fallbacks.increment();
+    }
+
+    /**
+     * Returns the number of parsed configurations.
+     *
+     * @return The number of loads.
+     */
+    public long loads() {
+        return loads.sum();
+    }
+
+    /**
+     * Returns the total time spent parsing.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long loadNanos() {
+        return loadNanos.sum();
+    }
+
+    /**
+     * Returns the total size of the parsed data.
+     *
+     * @return The size in bytes, characters for strings.
+     */
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Returns the number of serialized configurations.
+     *
+     * @return The number of saves.
+     */
+    public long saves() {
+        return saves.sum();
+    }
+
+    /**
+     * Returns the total time spent serializing.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long saveNanos() {
+        return saveNanos.sum();
+    }
+
+    /**
+     * Returns the total size of the serialized data.
+     *
+     * @return The size in bytes, characters for strings.
+     */
+    public long bytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Returns the number of nodes of the last parsed tree, sections included.
+     *
+     * @return The number of nodes.
+     */
+    public int nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the number of sections of the last parsed tree.
+     *
+     * @return The number of sections.
+     */
+    public int sections() {
+        return sections;
+    }
+
+    /**
+     * Returns the number of lookups of an existing key.
+     *
+     * @return The number of hits.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups of a missing key.
+     *
+     * @return The number of misses.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of lookups that returned their fallback.
+     *
+     * @return The number of fallbacks.
+     */
+    public long fallbacks() {
+        return fallbacks.sum();
+    }
+}
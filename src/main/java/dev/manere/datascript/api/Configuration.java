@@ -5,7 +5,10 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Interface representing a configuration with methods to load, save, and manage configuration data.
@@ -20,6 +23,32 @@ public interface Configuration {
     @NotNull
     ConfigSection root();
 
+    /**
+     * Returns an immutable snapshot of the whole configuration, which can be read from any number of
+     * threads without locking while writes and loads go to {@link #root()}. Every lazily loaded section is loaded.
+     *
+     * @return the snapshot of the root section
+     * @see ConfigSection#snapshot()
+     */
+    @NotNull
+    default ConfigSection snapshot() {
+        return root().snapshot();
+    }
+
+    /**
+     * Lists the differences between two configurations, such as a configuration and a reloaded copy of it.
+     * Sections whose contents hash the same on both sides are skipped without being compared.
+     *
+     * @param previous the configuration before
+     * @param current  the configuration after
+     * @return the added, removed and changed nodes, sorted by path
+     * @see ConfigSection#diff(ConfigSection)
+     */
+    @NotNull
+    static List<ConfigChange> diff(final @NotNull Configuration previous, final @NotNull Configuration current) {
+        return previous.root().diff(current.root());
+    }
+
     /**
      * Returns the file associated with this configuration.
      *
@@ -59,6 +88,58 @@ public interface Configuration {
      */
     void saveToDisk();
 
+    /**
+     * Loads the configuration data from disk on a virtual thread.
+     *
+     * @return a future completing once loaded
+     * @see #loadAsync(Executor)
+     */
+    @NotNull
+    default CompletableFuture<Void> loadAsync() {
+        return loadAsync(AsyncOperations.VIRTUAL_THREADS);
+    }
+
+    /**
+     * Loads the configuration data from disk on the given executor.
+     * <p>
+     * Concurrent requests are folded together: while a load runs, every further request is answered by
+     * a single load starting once the running one completes, so no request is answered by a load that
+     * started before it was made.
+     *
+     * @param executor the executor to load on
+     * @return a future completing once loaded, or failing with the exception thrown by the load
+     */
+    @NotNull
+    default CompletableFuture<Void> loadAsync(final @NotNull Executor executor) {
+        return AsyncOperations.request(this, false, this::loadFromDisk, executor);
+    }
+
+    /**
+     * Saves the configuration data to disk on a virtual thread.
+     *
+     * @return a future completing once saved
+     * @see #saveAsync(Executor)
+     */
+    @NotNull
+    default CompletableFuture<Void> saveAsync() {
+        return saveAsync(AsyncOperations.VIRTUAL_THREADS);
+    }
+
+    /**
+     * Saves the configuration data to disk on the given executor.
+     * <p>
+     * Concurrent requests are folded together: while a save runs, every further request is answered by
+     * a single save starting once the running one completes, so every request is answered by a save
+     * that includes the changes made before it.
+     *
+     * @param executor the executor to save on
+     * @return a future completing once saved, or failing with the exception thrown by the save
+     */
+    @NotNull
+    default CompletableFuture<Void> saveAsync(final @NotNull Executor executor) {
+        return AsyncOperations.request(this, true, this::saveToDisk, executor);
+    }
+
     /**
      * Loads configuration data from a string.
      *
@@ -0,0 +1,173 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Computes 64-bit hashes of section contents, Merkle-style: the hash of a section combines the hash of
+ * every child, and section hashes are cached on their {@link NodeSet} together with its version. Since a
+ * change bumps the version of every enclosing set, hashing a tree again only rehashes the sections along
+ * the changed paths and reuses the cached hash of every other one.
+ * <p>
+ * Lists, and values of types this class does not know, can be changed in place without the set noticing,
+ * such as through {@link ConfigSection#listValue(String)}. A section holding one anywhere in its subtree
+ * is therefore never served from the cache, while its other nested sections still are.
+ * <p>
+ * Two sections with equal contents always hash the same, whatever order their nodes were added in.
+ * Values are hashed over their full contents rather than through {@link Object#hashCode()}, so values
+ * that only collide in 32 bits, such as many short strings, still hash differently.
+ */
+@ApiStatus.Internal
+final class ContentHash {
+    private static final long SECTION = 0x9e3779b97f4a7c15L;
+    private static final long SCALAR = 0xc2b2ae3d27d4eb4fL;
+
+    private ContentHash() {}
+
+    /**
+     * Returns the hash of the contents of a section, ignoring its own name. Lazy sections are loaded.
+     *
+     * @param section The section.
+     * @return The hash.
+     */
+    static long of(final @NotNull SectionNode section) {
+        return of(section, new boolean[1]);
+    }
+
+    /**
+     * Returns the hash of the contents of a section, flagging whether its subtree holds values that can
+     * change without bumping a version.
+     */
+    @ApiStatus.Internal
+    private static long of(final @NotNull SectionNode section, final boolean @NotNull [] mutable) {
+        // Snapshots copy their lists into unmodifiable ones, so their hash never goes stale.
+        if (section instanceof FrozenSectionNode frozen) {
+            long hash = frozen.hash;
+            if (hash == 0) frozen.hash = hash = compute(section, new boolean[1]);
+            return hash;
+        }
+
+        if (!(section.nodes() instanceof NodeSet set)) {
+            mutable[0] = true;
+            return compute(section, mutable);
+        }
+
+        // Read the version first: a change made while hashing leaves a cached hash that is already stale.
+        final long version = set.version();
+        if (set.hashed instanceof Cached cached && cached.version() == version) return cached.hash();
+
+        final boolean[] own = new boolean[1];
+        final long hash = compute(section, own);
+
+        if (own[0]) mutable[0] = true;
+        else set.hashed = new Cached(version, hash);
+
+        return hash;
+    }
+
+    /**
+     * Returns the hash of a scalar value, consistent with {@link Object#equals(Object)} for every type
+     * a scalar can hold: lists of equal elements hash the same whether or not they are backed by an array.
+     *
+     * @param value The value.
+     * @return The hash.
+     */
+    static long value(final @Nullable Object value) {
+        return switch (value) {
+            case null -> 0;
+            case String string -> string(string);
+            case Integer integer -> mix(1, integer);
+            case Long number -> mix(2, number);
+            case Double number -> mix(3, Double.doubleToLongBits(number));
+            case Short number -> mix(4, number);
+            case Byte number -> mix(5, number);
+            case Character character -> mix(6, character);
+            case Boolean bool -> mix(7, bool ? 1 : 0);
+            case Float number -> mix(8, Float.floatToIntBits(number));
+            case UUID uuid -> mix(9, uuid.getMostSignificantBits() ^ mix(10, uuid.getLeastSignificantBits()));
+            case IntList ints -> {
+                long hash = 11;
+                for (final int element : ints.array()) hash = hash * 31 + mix(1, element);
+                yield mix(12, hash);
+            }
+            case LongList longs -> {
+                long hash = 11;
+                for (final long element : longs.array()) hash = hash * 31 + mix(2, element);
+                yield mix(12, hash);
+            }
+            case List<?> list -> {
+                long hash = 11;
+                synchronized (list) {
+                    for (final Object element : list) hash = hash * 31 + value(element);
+                }
+                yield mix(12, hash);
+            }
+            default -> mix(13, value.hashCode());
+        };
+    }
+
+    @ApiStatus.Internal
+    private static long compute(final @NotNull SectionNode section, final boolean @NotNull [] mutable) {
+        long hash = 0;
+        int count = 0;
+
+        for (final ConfigNode node : section.nodes()) {
+            final long content;
+
+            if (node instanceof SectionNode child) {
+                content = SECTION + of(child, mutable);
+            } else if (node instanceof ScalarNode<?> scalar) {
+                final Object value = scalar.value();
+                if (!immutable(value)) mutable[0] = true;
+                content = SCALAR + value(value);
+            } else {
+                content = SCALAR;
+            }
+
+            // Summing keeps the hash independent of iteration order.
+            hash += mix(string(node.name()), content);
+            count++;
+        }
+
+        return mix(count, hash) | 1;
+    }
+
+    @ApiStatus.Internal
+    private static boolean immutable(final @Nullable Object value) {
+        return value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+            || value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Short
+            || value instanceof Byte || value instanceof Float || value instanceof UUID;
+    }
+
+    @ApiStatus.Internal
+    private static long string(final @NotNull String string) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < string.length(); i++) hash = (hash ^ string.charAt(i)) * 0x100000001b3L;
+        return mix(string.length(), hash);
+    }
+
+    /**
+     * Combines two values with the finalizer of SplitMix64.
+     */
+    @ApiStatus.Internal
+    private static long mix(final long seed, final long value) {
+        long z = value + seed * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A hash cached on a set.
+     *
+     * @param version The version of the set when it was hashed.
+     * @param hash    The hash.
+     */
+    @ApiStatus.Internal
+    private record Cached(long version, long hash) {
+    }
+}
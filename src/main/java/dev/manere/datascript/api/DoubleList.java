@@ -0,0 +1,135 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * List of double values backed by a {@code double[]}, so elements are not boxed while stored.
+ * <p>
+ * Homogeneous double lists are loaded into this type. Reading through {@link #getDouble(int)} or
+ * {@link #doubles()} never boxes; the {@link java.util.List} methods box on the way in and out.
+ * The list is copy-on-write: reads never lock and writes copy the array, so it can be shared between
+ * threads and iterated while it is modified.
+ */
+public final class DoubleList extends PrimitiveList<Double> {
+    private volatile double[] values;
+
+    /**
+     * Constructs a new, empty list.
+     */
+    public DoubleList() {
+        this(new double[0]);
+    }
+
+    /**
+     * Constructs a new list backed by the given array, which must not be modified afterwards.
+     *
+     * @param values The elements of the list.
+     */
+    public DoubleList(final double @NotNull [] values) {
+        this.values = values;
+    }
+
+    /**
+     * Returns the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @return The element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public double getDouble(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Replaces the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @param value The new element.
+     * @return The previous element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public synchronized double setDouble(final int index, final double value) {
+        final double[] values = this.values.clone();
+        final double previous = values[index];
+        values[index] = value;
+        this.values = values;
+        return previous;
+    }
+
+    /**
+     * Appends an element without boxing it.
+     *
+     * @param value The element to append.
+     */
+    public synchronized void addDouble(final double value) {
+        final double[] values = Arrays.copyOf(this.values, this.values.length + 1);
+        values[values.length - 1] = value;
+        this.values = values;
+        modCount++;
+    }
+
+    /**
+     * Returns a sequential stream over the elements as they are when this is called.
+     *
+     * @return A stream of the elements.
+     */
+    @NotNull
+    public DoubleStream doubles() {
+        return Arrays.stream(values);
+    }
+
+    /**
+     * Returns a copy of the elements.
+     *
+     * @return A new array holding the elements.
+     */
+    public double @NotNull [] toDoubleArray() {
+        return values.clone();
+    }
+
+    @Override
+    public Double get(final int index) {
+        return getDouble(index);
+    }
+
+    @Override
+    public Double set(final int index, final @NotNull Double value) {
+        return setDouble(index, value);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @NotNull
+    @Override
+    double @NotNull [] array() {
+        return values;
+    }
+
+    @Override
+    void publish(final @NotNull Object array) {
+        values = (double[]) array;
+    }
+
+    @NotNull
+    @Override
+    Object allocate(final int length) {
+        return new double[length];
+    }
+
+    @NotNull
+    @Override
+    Double element(final @NotNull Object array, final int index) {
+        return ((double[]) array)[index];
+    }
+
+    @Override
+    void store(final @NotNull Object array, final int index, final @NotNull Double value) {
+        ((double[]) array)[index] = value;
+    }
+}
@@ -0,0 +1,52 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scalar node holding a unboxed {@code double}.
+ */
+public final class DoubleNode extends PrimitiveNode<Double> {
+    private volatile double value;
+
+    /**
+     * Constructs a new node with the provided name and value.
+     *
+     * @param name The name of the node.
+     * @param value The initial value of this node.
+     */
+    public DoubleNode(final @NotNull String name, final double value) {
+        super(name);
+        this.value = value;
+    }
+
+    /**
+     * Retrieves the value of this node without boxing it.
+     *
+     * @return The current value of this node.
+     */
+    public double doubleValue() {
+        return value;
+    }
+
+    /**
+     * Sets the value of this node without boxing it, marking the section holding it as modified.
+     *
+     * @param value The new value to be set.
+     */
+    public void set(final double value) {
+        final double previous = this.value;
+        this.value = value;
+        changed(observed() ? (Object) previous : null);
+    }
+
+    @NotNull
+    @Override
+    public Double value() {
+        return value;
+    }
+
+    @Override
+    public void set(final @NotNull Double value) {
+        set(value.doubleValue());
+    }
+}
@@ -0,0 +1,174 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+
+/**
+ * Immutable copy of a section, as returned by {@link ConfigSection#snapshot()}.
+ * <p>
+ * Copies are cached on the {@link NodeSet} they were taken from together with its version, so taking
+ * another snapshot only copies the sections that changed in the meantime and shares every other one
+ * with the previous snapshot.
+ */
+@ApiStatus.Internal
+final class FrozenSectionNode implements SectionNode {
+    private static final int ATTEMPTS = 8;
+    private static final int SPINS = 1_000;
+
+    private final String name;
+    private final long version;
+    private final Map<String, ConfigNode> index;
+    private final Set<ConfigNode> nodes;
+
+    volatile long hash;
+
+    private FrozenSectionNode(final @NotNull String name, final long version, final @NotNull Map<String, ConfigNode> index) {
+        this.name = name;
+        this.version = version;
+        this.index = index;
+        this.nodes = Set.copyOf(index.values());
+    }
+
+    /**
+     * Takes an immutable copy of a section. If the section changes while it is copied, the copy is
+     * retried a few times so that it reflects a single version of the tree, and then taken once more
+     * while holding every section lock. Transactions being applied to the section are briefly spun on,
+     * and waited for through the locks once they keep the section busy. Lazy sections are loaded.
+     *
+     * @param section The section to copy.
+     * @return The copy.
+     */
+    @NotNull
+    static SectionNode of(final @NotNull SectionNode section) {
+        if (section instanceof FrozenSectionNode) return section;
+        if (!(section.nodes() instanceof NodeSet set)) return copy(section, -1);
+
+        for (int attempts = 1; ; attempts++) {
+            // Transactions are short, spin a little for them rather than copying half of one.
+            for (int spins = 0; spins < SPINS && set.writing(); spins++) Thread.onSpinWait();
+
+            if (!set.writing()) {
+                final FrozenSectionNode frozen = (FrozenSectionNode) freeze(section);
+                if (frozen.version == set.version() && !set.writing()) return frozen;
+            }
+
+            if (attempts < ATTEMPTS) continue;
+
+            // Taking the locks would deadlock against writers waiting for one this thread holds.
+            if (!SectionLocks.holding()) return locked(section, set);
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Copies a section that keeps changing while holding every section lock, so that writers going
+     * through {@link ConfigSection} or a {@link Transaction} wait for the copy.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    private static SectionNode locked(final @NotNull SectionNode section, final @NotNull NodeSet set) {
+        final boolean[] held = SectionLocks.lockAll();
+
+        try {
+            FrozenSectionNode frozen;
+            do frozen = (FrozenSectionNode) freeze(section);
+            while (frozen.version != set.version());
+
+            return frozen;
+        } finally {
+            SectionLocks.unlock(held);
+        }
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static SectionNode freeze(final @NotNull SectionNode section) {
+        if (!(section.nodes() instanceof NodeSet set)) return copy(section, -1);
+
+        // Read the version first: the copy then holds at least what that version describes.
+        final long version = set.version();
+        if (set.frozen instanceof FrozenSectionNode frozen && frozen.version == version && frozen.name.equals(section.name())) return frozen;
+
+        final FrozenSectionNode frozen = copy(section, version);
+        set.frozen = frozen;
+        return frozen;
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static FrozenSectionNode copy(final @NotNull SectionNode section, final long version) {
+        final Map<String, ConfigNode> index = new HashMap<>();
+
+        for (final ConfigNode node : section.nodes()) {
+            if (node instanceof SectionNode child) index.put(node.name(), freeze(child));
+            else if (node instanceof ScalarNode<?> scalar) index.put(node.name(), new Scalar(node.name(), freeze(scalar.value())));
+        }
+
+        return new FrozenSectionNode(section.name(), version, Map.copyOf(index));
+    }
+
+    /**
+     * Copies mutable list values. Primitive lists never modify a published array, so the copy shares it.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    private static Object freeze(final @NotNull Object value) {
+        if (!(value instanceof List<?> list)) return value;
+
+        return switch (list) {
+            case IntList ints -> Collections.unmodifiableList(new IntList(ints.array()));
+            case LongList longs -> Collections.unmodifiableList(new LongList(longs.array()));
+            case DoubleList doubles -> Collections.unmodifiableList(new DoubleList(doubles.array()));
+            case ShortList shorts -> Collections.unmodifiableList(new ShortList(shorts.array()));
+            case ByteList bytes -> Collections.unmodifiableList(new ByteList(bytes.array()));
+            default -> List.copyOf(list);
+        };
+    }
+
+    @NotNull
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @NotNull
+    @Override
+    @Unmodifiable
+    public Set<ConfigNode> nodes() {
+        return nodes;
+    }
+
+    @Nullable
+    @Override
+    public ConfigNode node(final @NotNull String name) {
+        return index.get(name);
+    }
+
+    /**
+     * Immutable scalar of a snapshot.
+     */
+    @ApiStatus.Internal
+    private static final class Scalar extends ScalarNode<Object> {
+        private final String name;
+
+        private Scalar(final @NotNull String name, final @NotNull Object value) {
+            super(value);
+            this.name = name;
+        }
+
+        @NotNull
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void set(final @NotNull Object value) {
+            throw new UnsupportedOperationException("Snapshots cannot be modified");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Default {@link SectionNode} implementation, keeping its children in a name-indexed {@link NodeSet}.
+ */
+public class IndexedSectionNode implements SectionNode {
+    private final String name;
+    private final NodeSet nodes;
+
+    /**
+     * Constructs a new, empty section with the provided name.
+     *
+     * @param name The name of the section.
+     */
+    public IndexedSectionNode(final @NotNull String name) {
+        this(name, new NodeSet());
+    }
+
+    /**
+     * Constructs a section around an existing child set, which keeps its listeners and caches.
+     *
+     * @param name  The name of the section.
+     * @param nodes The child set.
+     */
+    IndexedSectionNode(final @NotNull String name, final @NotNull NodeSet nodes) {
+        this.name = name;
+        this.nodes = nodes;
+    }
+
+    @NotNull
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the name-indexed set of configuration nodes contained in this section.
+     *
+     * @return A {@link NodeSet} of child nodes.
+     */
+    @NotNull
+    @Override
+    public NodeSet nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the child set without going through {@link #nodes()}.
+     *
+     * @return The child set.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    final NodeSet set() {
+        return nodes;
+    }
+}
@@ -0,0 +1,135 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * List of int values backed by a {@code int[]}, so elements are not boxed while stored.
+ * <p>
+ * Homogeneous int lists are loaded into this type. Reading through {@link #getInt(int)} or
+ * {@link #ints()} never boxes; the {@link java.util.List} methods box on the way in and out.
+ * The list is copy-on-write: reads never lock and writes copy the array, so it can be shared between
+ * threads and iterated while it is modified.
+ */
+public final class IntList extends PrimitiveList<Integer> {
+    private volatile int[] values;
+
+    /**
+     * Constructs a new, empty list.
+     */
+    public IntList() {
+        this(new int[0]);
+    }
+
+    /**
+     * Constructs a new list backed by the given array, which must not be modified afterwards.
+     *
+     * @param values The elements of the list.
+     */
+    public IntList(final int @NotNull [] values) {
+        this.values = values;
+    }
+
+    /**
+     * Returns the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @return The element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int getInt(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Replaces the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @param value The new element.
+     * @return The previous element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public synchronized int setInt(final int index, final int value) {
+        final int[] values = this.values.clone();
+        final int previous = values[index];
+        values[index] = value;
+        this.values = values;
+        return previous;
+    }
+
+    /**
+     * Appends an element without boxing it.
+     *
+     * @param value The element to append.
+     */
+    public synchronized void addInt(final int value) {
+        final int[] values = Arrays.copyOf(this.values, this.values.length + 1);
+        values[values.length - 1] = value;
+        this.values = values;
+        modCount++;
+    }
+
+    /**
+     * Returns a sequential stream over the elements as they are when this is called.
+     *
+     * @return A stream of the elements.
+     */
+    @NotNull
+    public IntStream ints() {
+        return Arrays.stream(values);
+    }
+
+    /**
+     * Returns a copy of the elements.
+     *
+     * @return A new array holding the elements.
+     */
+    public int @NotNull [] toIntArray() {
+        return values.clone();
+    }
+
+    @Override
+    public Integer get(final int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(final int index, final @NotNull Integer value) {
+        return setInt(index, value);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @NotNull
+    @Override
+    int @NotNull [] array() {
+        return values;
+    }
+
+    @Override
+    void publish(final @NotNull Object array) {
+        values = (int[]) array;
+    }
+
+    @NotNull
+    @Override
+    Object allocate(final int length) {
+        return new int[length];
+    }
+
+    @NotNull
+    @Override
+    Integer element(final @NotNull Object array, final int index) {
+        return ((int[]) array)[index];
+    }
+
+    @Override
+    void store(final @NotNull Object array, final int index, final @NotNull Integer value) {
+        ((int[]) array)[index] = value;
+    }
+}
@@ -0,0 +1,52 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scalar node holding an unboxed {@code int}.
+ */
+public final class IntNode extends PrimitiveNode<Integer> {
+    private volatile int value;
+
+    /**
+     * Constructs a new node with the provided name and value.
+     *
+     * @param name The name of the node.
+     * @param value The initial value of this node.
+     */
+    public IntNode(final @NotNull String name, final int value) {
+        super(name);
+        this.value = value;
+    }
+
+    /**
+     * Retrieves the value of this node without boxing it.
+     *
+     * @return The current value of this node.
+     */
+    public int intValue() {
+        return value;
+    }
+
+    /**
+     * Sets the value of this node without boxing it, marking the section holding it as modified.
+     *
+     * @param value The new value to be set.
+     */
+    public void set(final int value) {
+        final int previous = this.value;
+        this.value = value;
+        changed(observed() ? (Object) previous : null);
+    }
+
+    @NotNull
+    @Override
+    public Integer value() {
+        return value;
+    }
+
+    @Override
+    public void set(final @NotNull Integer value) {
+        set(value.intValue());
+    }
+}
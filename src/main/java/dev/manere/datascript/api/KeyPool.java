@@ -0,0 +1,75 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Shares one {@link String} instance between every occurrence of the same key, so a configuration
+ * repeating the same key names across thousands of sections keeps a single copy of each.
+ * <p>
+ * The pool is a fixed-size table indexed by the hash of the key, where a colliding key simply replaces
+ * the previous one. It never grows and never locks: at worst a key is created twice, and a key that is
+ * not pooled is still correct, it just takes more memory. Keys are looked up straight from the
+ * characters being parsed, so a pooled key costs no allocation at all.
+ */
+@ApiStatus.Internal
+public final class KeyPool {
+    private static final int SIZE = 8192;
+    private static final int MAX_LENGTH = 64;
+
+    private static final String[] KEYS = new String[SIZE];
+
+    private KeyPool() {}
+
+    /**
+     * Returns the pooled instance of a key.
+     *
+     * @param key The key.
+     * @return An equal key, possibly the given one.
+     */
+    @NotNull
+    public static String intern(final @NotNull String key) {
+        if (key.length() > MAX_LENGTH) return key;
+
+        final int index = key.hashCode() & (SIZE - 1);
+        final String pooled = KEYS[index];
+        if (key.equals(pooled)) return pooled;
+
+        KEYS[index] = key;
+        return key;
+    }
+
+    /**
+     * Returns the pooled instance of the key held by a range of characters, creating it only if it is not pooled.
+     *
+     * @param chars The characters holding the key.
+     * @param start The inclusive start of the key.
+     * @param end   The exclusive end of the key.
+     * @return The key.
+     */
+    @NotNull
+    public static String intern(final char @NotNull [] chars, final int start, final int end) {
+        final int length = end - start;
+        if (length > MAX_LENGTH) return new String(chars, start, length);
+
+        // Same hash as String#hashCode, so both methods agree on the slot of a key.
+        int hash = 0;
+        for (int i = start; i < end; i++) hash = 31 * hash + chars[i];
+
+        final int index = hash & (SIZE - 1);
+        final String pooled = KEYS[index];
+        if (pooled != null && matches(pooled, chars, start, length)) return pooled;
+
+        final String key = new String(chars, start, length);
+        KEYS[index] = key;
+        return key;
+    }
+
+    @ApiStatus.Internal
+    private static boolean matches(final @NotNull String key, final char @NotNull [] chars, final int start, final int length) {
+        if (key.length() != length) return false;
+
+        for (int i = 0; i < length; i++) if (key.charAt(i) != chars[start + i]) return false;
+        return true;
+    }
+}
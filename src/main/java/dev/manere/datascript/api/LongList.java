@@ -0,0 +1,135 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * List of long values backed by a {@code long[]}, so elements are not boxed while stored.
+ * <p>
+ * Homogeneous long lists are loaded into this type. Reading through {@link #getLong(int)} or
+ * {@link #longs()} never boxes; the {@link java.util.List} methods box on the way in and out.
+ * The list is copy-on-write: reads never lock and writes copy the array, so it can be shared between
+ * threads and iterated while it is modified.
+ */
+public final class LongList extends PrimitiveList<Long> {
+    private volatile long[] values;
+
+    /**
+     * Constructs a new, empty list.
+     */
+    public LongList() {
+        this(new long[0]);
+    }
+
+    /**
+     * Constructs a new list backed by the given array, which must not be modified afterwards.
+     *
+     * @param values The elements of the list.
+     */
+    public LongList(final long @NotNull [] values) {
+        this.values = values;
+    }
+
+    /**
+     * Returns the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @return The element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public long getLong(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Replaces the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @param value The new element.
+     * @return The previous element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public synchronized long setLong(final int index, final long value) {
+        final long[] values = this.values.clone();
+        final long previous = values[index];
+        values[index] = value;
+        this.values = values;
+        return previous;
+    }
+
+    /**
+     * Appends an element without boxing it.
+     *
+     * @param value The element to append.
+     */
+    public synchronized void addLong(final long value) {
+        final long[] values = Arrays.copyOf(this.values, this.values.length + 1);
+        values[values.length - 1] = value;
+        this.values = values;
+        modCount++;
+    }
+
+    /**
+     * Returns a sequential stream over the elements as they are when this is called.
+     *
+     * @return A stream of the elements.
+     */
+    @NotNull
+    public LongStream longs() {
+        return Arrays.stream(values);
+    }
+
+    /**
+     * Returns a copy of the elements.
+     *
+     * @return A new array holding the elements.
+     */
+    public long @NotNull [] toLongArray() {
+        return values.clone();
+    }
+
+    @Override
+    public Long get(final int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public Long set(final int index, final @NotNull Long value) {
+        return setLong(index, value);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @NotNull
+    @Override
+    long @NotNull [] array() {
+        return values;
+    }
+
+    @Override
+    void publish(final @NotNull Object array) {
+        values = (long[]) array;
+    }
+
+    @NotNull
+    @Override
+    Object allocate(final int length) {
+        return new long[length];
+    }
+
+    @NotNull
+    @Override
+    Long element(final @NotNull Object array, final int index) {
+        return ((long[]) array)[index];
+    }
+
+    @Override
+    void store(final @NotNull Object array, final int index, final @NotNull Long value) {
+        ((long[]) array)[index] = value;
+    }
+}
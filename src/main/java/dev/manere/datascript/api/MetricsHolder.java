@@ -0,0 +1,13 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Holds the metrics installed through {@link ConfigMetrics#install(ConfigMetrics)}.
+ */
+@ApiStatus.Internal
+final class MetricsHolder {
+    static volatile ConfigMetrics installed = ConfigMetrics.NOOP;
+
+    private MetricsHolder() {}
+}
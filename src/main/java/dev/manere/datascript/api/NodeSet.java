@@ -0,0 +1,391 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * A concurrent set of {@link ConfigNode} instances indexed by their name.
+ * <p>
+ * Every node is stored under its name, so lookups through {@link #get(String)} are O(1) and the index
+ * can never drift from the set contents. Names are unique: adding a node replaces any other node
+ * with the same name.
+ * <p>
+ * Each set keeps a {@link #version()} that is bumped whenever a node is added, removed or replaced,
+ * a contained {@link ScalarNode} is set, or anything changes in a nested section, so callers can tell
+ * cheaply whether a subtree changed.
+ * <p>
+ * Listeners registered through {@link #subscribe} are told about every node that is added, removed or
+ * replaced and every scalar that is set, in this set or, for subtree listeners, in any nested section.
+ * Changes made through {@link ConfigSection} and {@link Transaction} are delivered once their section
+ * locks are released; inline listeners then run on the thread that made the change.
+ */
+public class NodeSet extends AbstractSet<ConfigNode> {
+    private static final AtomicLongFieldUpdater<NodeSet> VERSION = AtomicLongFieldUpdater.newUpdater(NodeSet.class, "version");
+    private static final AtomicIntegerFieldUpdater<NodeSet> STRUCTURE = AtomicIntegerFieldUpdater.newUpdater(NodeSet.class, "structure");
+    private static final AtomicIntegerFieldUpdater<NodeSet> WRITERS = AtomicIntegerFieldUpdater.newUpdater(NodeSet.class, "writers");
+    private static final AtomicReferenceFieldUpdater<NodeSet, ChangeListeners> LISTENERS = AtomicReferenceFieldUpdater.newUpdater(NodeSet.class, ChangeListeners.class, "listeners");
+
+    private final ConcurrentHashMap<String, ConfigNode> nodes = new ConcurrentHashMap<>();
+
+    private volatile long version;
+    private volatile int structure;
+    private volatile NodeSet parent;
+    private volatile String name;
+    private volatile ChangeListeners listeners;
+    private volatile Consumer<ConfigChange> recorder;
+    private volatile int writers;
+    private volatile Object serialized;
+
+    volatile Object frozen;
+    volatile Object hashed;
+
+    /**
+     * Retrieves the node with the given name.
+     *
+     * @param name The name of the node.
+     * @return The node, or null if none is stored under that name.
+     */
+    @Nullable
+    public ConfigNode get(final @NotNull String name) {
+        return nodes.get(name);
+    }
+
+    /**
+     * Adds a node, replacing any node that has the same name.
+     *
+     * @param node The node to add.
+     * @return true if the set changed.
+     */
+    @Override
+    public boolean add(final @NotNull ConfigNode node) {
+        final ConfigNode previous = nodes.put(node.name(), node);
+        if (previous == node) return false;
+
+        if (previous != null) detach(previous);
+        attach(node);
+        STRUCTURE.incrementAndGet(this);
+        modified();
+        changed(node.name(), previous, node);
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object object) {
+        if (!(object instanceof ConfigNode node) || !nodes.remove(node.name(), node)) return false;
+
+        detach(node);
+        STRUCTURE.incrementAndGet(this);
+        modified();
+        changed(node.name(), node, null);
+        return true;
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        return object instanceof ConfigNode node && nodes.get(node.name()) == node;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<ConfigNode> iterator() {
+        final Iterator<ConfigNode> iterator = nodes.values().iterator();
+
+        return new Iterator<>() {
+            private ConfigNode last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public ConfigNode next() {
+                return last = iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                detach(last);
+                STRUCTURE.incrementAndGet(NodeSet.this);
+                modified();
+                changed(last.name(), last, null);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        final ConfigNode[] removed = nodes.values().toArray(ConfigNode[]::new);
+        for (final ConfigNode node : removed) detach(node);
+        nodes.clear();
+        STRUCTURE.incrementAndGet(this);
+        modified();
+
+        if (observed()) for (final ConfigNode node : removed) changed(node.name(), node, null);
+    }
+
+    /**
+     * Adds nodes without marking this set as modified or notifying listeners, for sections whose
+     * contents are filled in after they were added to the tree.
+     *
+     * @param nodes The nodes to add.
+     */
+    @ApiStatus.Internal
+    public void fill(final @NotNull Iterable<ConfigNode> nodes) {
+        for (final ConfigNode node : nodes) {
+            final ConfigNode previous = this.nodes.put(node.name(), node);
+            if (previous != null && previous != node) detach(previous);
+            attach(node);
+        }
+
+        STRUCTURE.incrementAndGet(this);
+    }
+
+    /**
+     * Returns the structural version of this set. Unlike {@link #version()}, it only increases when a
+     * node is added, removed or replaced in this very set, and not when a scalar is set or a nested
+     * section changes, so it tells whether a lookup in this set may now resolve to another node.
+     *
+     * @return The current structural version.
+     */
+    @ApiStatus.Internal
+    int structure() {
+        return structure;
+    }
+
+    /**
+     * Returns the modification version of this set. It increases whenever this set or any nested
+     * section changes, and never decreases.
+     *
+     * @return The current version.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Marks this set and every enclosing set as modified.
+     */
+    @ApiStatus.Internal
+    public void modified() {
+        for (NodeSet set = this; set != null; set = set.parent) VERSION.incrementAndGet(set);
+    }
+
+    /**
+     * Marks this set and every enclosing set as being written by a transaction, so snapshots wait
+     * for it instead of copying a partially applied state.
+     *
+     * @param marked Receives every marked set, to be passed to {@link #endWrite(List)}.
+     */
+    @ApiStatus.Internal
+    void beginWrite(final @NotNull List<NodeSet> marked) {
+        for (NodeSet set = this; set != null; set = set.parent) {
+            WRITERS.incrementAndGet(set);
+            marked.add(set);
+        }
+    }
+
+    /**
+     * Removes the marks set by {@link #beginWrite(List)}. The sets are passed back explicitly since
+     * the transaction may have moved them.
+     *
+     * @param marked The marked sets.
+     */
+    @ApiStatus.Internal
+    static void endWrite(final @NotNull List<NodeSet> marked) {
+        for (final NodeSet set : marked) WRITERS.decrementAndGet(set);
+    }
+
+    /**
+     * Checks whether a transaction is being applied to this set or a nested one.
+     *
+     * @return true while a transaction is being applied.
+     */
+    @ApiStatus.Internal
+    boolean writing() {
+        return writers != 0;
+    }
+
+    /**
+     * Returns the serializer-specific cache attached to this set. Serializers must compare it
+     * against {@link #version()} before reusing it.
+     *
+     * @return The attached cache, or null.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public Object serialized() {
+        return serialized;
+    }
+
+    /**
+     * Attaches a serializer-specific cache to this set.
+     *
+     * @param serialized The cache, or null to drop it.
+     */
+    @ApiStatus.Internal
+    public void serialized(final @Nullable Object serialized) {
+        this.serialized = serialized;
+    }
+
+    /**
+     * Registers a listener.
+     *
+     * @param key      The key to listen to, or null to listen to every change in this set and its nested sections.
+     * @param consumer The listener.
+     * @param executor The executor delivering events, or null to deliver them on the thread making the change.
+     * @return A handle removing the listener.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    public Subscription subscribe(final @Nullable String key, final @NotNull Consumer<ConfigChange> consumer, final @Nullable Executor executor) {
+        final ChangeListeners.Listener listener = new ChangeListeners.Listener(consumer, executor);
+
+        ChangeListeners current;
+        do current = listeners;
+        while (!LISTENERS.compareAndSet(this, current, (current == null ? ChangeListeners.EMPTY : current).with(key, listener)));
+
+        return () -> {
+            ChangeListeners registered;
+            do registered = listeners;
+            while (registered != null && !LISTENERS.compareAndSet(this, registered, registered.without(key, listener)));
+        };
+    }
+
+    /**
+     * Holds back the listener deliveries of the changes the current thread makes until {@link #release(List)},
+     * as transactions do while they are applied.
+     *
+     * @return The held deliveries, or null if an enclosing caller holds them back already.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public static List<Runnable> hold() {
+        return ChangeListeners.hold();
+    }
+
+    /**
+     * Delivers the changes held back by {@link #hold()}.
+     *
+     * @param held The held deliveries.
+     */
+    @ApiStatus.Internal
+    public static void release(final @Nullable List<Runnable> held) {
+        ChangeListeners.release(held, true);
+    }
+
+    /**
+     * Sets the recorder of this set, which is told about every change in this set and its nested sections
+     * as the change is made, on the changing thread and while its section locks are held. Unlike listeners,
+     * it is never held back until the locks are released, so it sees changes in the order they were applied.
+     * It must be quick and must not throw.
+     *
+     * @param recorder The recorder, or null to remove it.
+     */
+    @ApiStatus.Internal
+    public void recorder(final @Nullable Consumer<ConfigChange> recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Checks whether any listener or recorder would see a change in this set.
+     *
+     * @return true if this set or an enclosing set has listeners or a recorder.
+     */
+    @ApiStatus.Internal
+    boolean observed() {
+        for (NodeSet set = this; set != null; set = set.parent) if (set.listeners != null || set.recorder != null) return true;
+        return false;
+    }
+
+    /**
+     * Notifies the recorders and listeners of this set and of every enclosing set about a changed node.
+     *
+     * @param key      The key of the node.
+     * @param previous The node or value before the change, or null.
+     * @param current  The node or value after the change, or null.
+     */
+    @ApiStatus.Internal
+    void changed(final @NotNull String key, final @Nullable Object previous, final @Nullable Object current) {
+        if (!observed()) return;
+
+        int levels = 0;
+        for (NodeSet set = this; set != null; set = set.parent) levels++;
+
+        final String[] path = new String[levels];
+        final List<String> keys = Collections.unmodifiableList(Arrays.asList(path));
+        final Object before = value(previous);
+        final Object after = value(current);
+
+        int index = levels - 1;
+        path[index] = key;
+
+        for (NodeSet set = this, child = null; set != null; child = set, set = set.parent) {
+            if (child != null) path[--index] = child.name;
+
+            final Consumer<ConfigChange> recorder = set.recorder;
+            if (recorder != null) recorder.accept(new ConfigChange(keys.subList(index, levels), before, after));
+
+            final ChangeListeners listeners = set.listeners;
+            if (listeners != null) listeners.dispatch(child == null ? key : null, keys.subList(index, levels), before, after);
+        }
+    }
+
+    @Nullable
+    @ApiStatus.Internal
+    private static Object value(final @Nullable Object node) {
+        if (node instanceof ScalarNode<?> scalar) return scalar.value();
+        if (node instanceof SectionNode section) return new ConfigSection(section);
+        return node;
+    }
+
+    @ApiStatus.Internal
+    private void attach(final @NotNull ConfigNode node) {
+        if (node instanceof ScalarNode<?> scalar) scalar.owner = this;
+        else if (set(node) instanceof NodeSet set) {
+            set.parent = this;
+            set.name = node.name();
+        }
+    }
+
+    @ApiStatus.Internal
+    private void detach(final @NotNull ConfigNode node) {
+        if (node instanceof ScalarNode<?> scalar) {
+            if (scalar.owner == this) scalar.owner = null;
+        } else if (set(node) instanceof NodeSet set) {
+            // A renamed section shares its set with the node replacing it, which stays attached.
+            if (set.parent == this && !(set.name != null && nodes.get(set.name) instanceof ConfigNode current && set(current) == set)) set.parent = null;
+        }
+    }
+
+    /**
+     * Returns the child set of a section without going through {@link SectionNode#nodes()}, which
+     * subclasses may override to do work such as loading the section.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    private static Object set(final @NotNull ConfigNode node) {
+        if (node instanceof IndexedSectionNode indexed) return indexed.set();
+        return node instanceof SectionNode section ? section.nodes() : null;
+    }
+}
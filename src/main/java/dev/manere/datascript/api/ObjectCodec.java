@@ -0,0 +1,269 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the fields of an object, or the components of a record, to the scalars of a section and back.
+ * <p>
+ * Everything reflection has to find out about a class is resolved once, the first time its codec is
+ * requested: fields and record components become method handles and their names are normalized into
+ * keys. Storing or loading an object afterwards only invokes those handles.
+ */
+@ApiStatus.Internal
+final class ObjectCodec {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<ObjectCodec> CODECS = new ClassValue<>() {
+        @Override
+        protected ObjectCodec computeValue(final @NotNull Class<?> type) {
+            try {
+                return type.isRecord() ? record(type) : object(type);
+            } catch (final IllegalAccessException e) {
+                throw new IllegalArgumentException("Cannot access the members of " + type.getName(), e);
+            }
+        }
+    };
+
+    private final Property[] properties;
+    private final MethodHandle constructor;
+    private final Object[] defaults;
+
+    /**
+     * Constructs a new codec.
+     *
+     * @param properties The mapped properties.
+     * @param constructor For records, the canonical constructor taking an {@code Object[]} of every component.
+     *                    For other classes, the no-argument constructor, or null if there is none.
+     * @param defaults For records, the value of every component whose key is missing, otherwise null.
+     */
+    private ObjectCodec(final Property @NotNull [] properties, final @Nullable MethodHandle constructor, final Object @Nullable [] defaults) {
+        this.properties = properties;
+        this.constructor = constructor;
+        this.defaults = defaults;
+    }
+
+    /**
+     * Returns the codec of the given class, creating it on first use.
+     *
+     * @param type The class.
+     * @return The codec.
+     * @throws IllegalArgumentException if the members of the class cannot be accessed.
+     */
+    @NotNull
+    static ObjectCodec of(final @NotNull Class<?> type) {
+        return CODECS.get(type);
+    }
+
+    /**
+     * Sets one scalar per property of the object in the given section. Null properties are unset.
+     *
+     * @param object The object to store.
+     * @param section The section to store it in.
+     */
+    void store(final @NotNull Object object, final @NotNull ConfigSection section) {
+        for (final Property property : properties) {
+            final Object value;
+            try {
+                value = (Object) property.getter().invokeExact(object);
+            } catch (final Throwable throwable) {
+                throw rethrow(throwable);
+            }
+
+            section.set(property.key(), value);
+        }
+    }
+
+    /**
+     * Creates an object from the scalars of the given section. Properties whose key is missing keep
+     * the value the constructor gave them, or are zero or null for records.
+     *
+     * @param section The section to read.
+     * @param <T> The type of the object.
+     * @return The new object.
+     * @throws IllegalArgumentException if the class has no no-argument constructor and is not a record,
+     *                                  or a value cannot be converted to the type of its property.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    <T> T load(final @NotNull ConfigSection section) {
+        if (constructor == null) throw new IllegalArgumentException("No no-argument constructor to load into");
+
+        try {
+            if (defaults != null) {
+                final Object[] arguments = defaults.clone();
+
+                for (final Property property : properties) {
+                    final Object value = value(section, property);
+                    if (value != null) arguments[property.index()] = value;
+                }
+
+                return (T) (Object) constructor.invokeExact(arguments);
+            }
+
+            final Object object = (Object) constructor.invokeExact();
+
+            for (final Property property : properties) {
+                final Object value = value(section, property);
+                if (value != null) property.setter().invokeExact(object, value);
+            }
+
+            return (T) object;
+        } catch (final Throwable throwable) {
+            throw rethrow(throwable);
+        }
+    }
+
+    @Nullable
+    @ApiStatus.Internal
+    private static Object value(final @NotNull ConfigSection section, final @NotNull Property property) {
+        final ConfigNode node = section.section().node(property.key());
+        return node instanceof ScalarNode<?> scalar ? convert(scalar.value(), property.type()) : null;
+    }
+
+    /**
+     * Converts a loaded value to the type of a property. Numbers are widened or narrowed as needed,
+     * since a value that was stored as an int may come back as any other numeric type after its
+     * property changed type.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    private static Object convert(final @NotNull Object value, final @NotNull Class<?> type) {
+        final Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+        if (boxed.isInstance(value)) return value;
+
+        if (value instanceof Number number) {
+            if (boxed == Integer.class) return number.intValue();
+            if (boxed == Long.class) return number.longValue();
+            if (boxed == Double.class) return number.doubleValue();
+            if (boxed == Float.class) return number.floatValue();
+            if (boxed == Short.class) return number.shortValue();
+            if (boxed == Byte.class) return number.byteValue();
+        }
+
+        if (boxed == Character.class && value instanceof String string && string.length() == 1) return string.charAt(0);
+
+        throw new IllegalArgumentException("Cannot convert " + value.getClass().getName() + " to " + type.getName());
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static ObjectCodec record(final @NotNull Class<?> type) throws IllegalAccessException {
+        final RecordComponent[] components = type.getRecordComponents();
+        final Class<?>[] parameters = new Class<?>[components.length];
+        final Object[] defaults = new Object[components.length];
+        final List<Property> properties = new ArrayList<>();
+
+        for (int i = 0; i < components.length; i++) {
+            final RecordComponent component = components[i];
+            parameters[i] = component.getType();
+            if (parameters[i].isPrimitive()) defaults[i] = Array.get(Array.newInstance(parameters[i], 1), 0);
+
+            // IgnoreField targets fields, so on a component it ends up on the private field backing it.
+            if (ignored(type, component)) continue;
+
+            final Method accessor = component.getAccessor();
+            accessor.setAccessible(true);
+
+            properties.add(new Property(
+                ConfigSection.normalize(component.getName()),
+                component.getType(),
+                i,
+                generic(LOOKUP.unreflect(accessor), 1),
+                null
+            ));
+        }
+
+        MethodHandle constructor;
+        try {
+            final Constructor<?> canonical = type.getDeclaredConstructor(parameters);
+            canonical.setAccessible(true);
+
+            constructor = generic(LOOKUP.unreflectConstructor(canonical), components.length)
+                .asSpreader(Object[].class, components.length);
+        } catch (final NoSuchMethodException e) {
+            constructor = null;
+        }
+
+        return new ObjectCodec(properties.toArray(Property[]::new), constructor, defaults);
+    }
+
+    @ApiStatus.Internal
+    private static boolean ignored(final @NotNull Class<?> type, final @NotNull RecordComponent component) {
+        try {
+            return type.getDeclaredField(component.getName()).isAnnotationPresent(IgnoreField.class);
+        } catch (final NoSuchFieldException e) {
+            return false;
+        }
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static ObjectCodec object(final @NotNull Class<?> type) throws IllegalAccessException {
+        final List<Property> properties = new ArrayList<>();
+
+        for (final Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(IgnoreField.class) || field.isSynthetic() || Modifier.isStatic(field.getModifiers())) continue;
+
+            field.setAccessible(true);
+
+            properties.add(new Property(
+                ConfigSection.normalize(field.getName()),
+                field.getType(),
+                -1,
+                generic(LOOKUP.unreflectGetter(field), 1),
+                LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class))
+            ));
+        }
+
+        MethodHandle constructor;
+        try {
+            final Constructor<?> empty = type.getDeclaredConstructor();
+            empty.setAccessible(true);
+
+            constructor = generic(LOOKUP.unreflectConstructor(empty), 0);
+        } catch (final NoSuchMethodException | SecurityException e) {
+            constructor = null;
+        }
+
+        return new ObjectCodec(properties.toArray(Property[]::new), constructor, null);
+    }
+
+    /**
+     * Adapts a handle to take and return {@link Object} only, so it can be called with {@code invokeExact}.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    private static MethodHandle generic(final @NotNull MethodHandle handle, final int parameters) {
+        return handle.asType(MethodType.genericMethodType(parameters));
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static RuntimeException rethrow(final @NotNull Throwable throwable) {
+        if (throwable instanceof RuntimeException runtime) return runtime;
+        if (throwable instanceof Error error) throw error;
+        return new RuntimeException(throwable);
+    }
+
+    /**
+     * A mapped field or record component.
+     *
+     * @param key The normalized key the property is stored under.
+     * @param type The declared type of the property.
+     * @param index For records, the position of the component in the canonical constructor.
+     * @param getter Reads the property, typed {@code (Object)Object}.
+     * @param setter For other classes, writes the property, typed {@code (Object,Object)void}.
+     */
+    @ApiStatus.Internal
+    private record Property(@NotNull String key, @NotNull Class<?> type, int index, @NotNull MethodHandle getter, @Nullable MethodHandle setter) {
+    }
+}
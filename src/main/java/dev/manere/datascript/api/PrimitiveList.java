@@ -0,0 +1,181 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base of the lists backed by an array of primitives, holding the logic that does not depend on the
+ * element type.
+ * <p>
+ * Like {@link CopyOnWriteArrayList}, the lists never modify an array once it was published, so reads,
+ * iterations and streams take no lock and always see a single version of the list, even while other
+ * threads modify it. Writes synchronize on the list and publish a modified copy of the array, so they
+ * cost time proportional to the size of the list and building a list element by element is quadratic;
+ * loaded lists are built from an array at once. Iterators do not support removal.
+ *
+ * @param <E> The boxed type of the elements.
+ */
+@ApiStatus.Internal
+abstract class PrimitiveList<E> extends AbstractList<E> implements RandomAccess {
+    /**
+     * Returns the published array, which must not be modified.
+     *
+     * @return The array.
+     */
+    @NotNull
+    abstract Object array();
+
+    /**
+     * Replaces the published array. Must be called while holding the lock of the list.
+     *
+     * @param array The new array, which must not be modified afterwards.
+     */
+    abstract void publish(final @NotNull Object array);
+
+    /**
+     * Allocates an array of the element type.
+     *
+     * @param length The length of the array.
+     * @return The array.
+     */
+    @NotNull
+    abstract Object allocate(final int length);
+
+    /**
+     * Reads an element of an array without checking the index.
+     *
+     * @param array The array.
+     * @param index The position of the element.
+     * @return The boxed element.
+     */
+    @NotNull
+    abstract E element(final @NotNull Object array, final int index);
+
+    /**
+     * Stores an element in an array that is not published yet.
+     *
+     * @param array The array.
+     * @param index The position of the element.
+     * @param value The element.
+     */
+    abstract void store(final @NotNull Object array, final int index, final @NotNull E value);
+
+    @Override
+    public synchronized boolean add(final @NotNull E value) {
+        add(size(), value);
+        return true;
+    }
+
+    @Override
+    public synchronized void add(final int index, final @NotNull E value) {
+        final Object array = array();
+        final int length = Array.getLength(array);
+        Objects.checkIndex(index, length + 1);
+
+        final Object copy = allocate(length + 1);
+        System.arraycopy(array, 0, copy, 0, index);
+        store(copy, index, value);
+        System.arraycopy(array, index, copy, index + 1, length - index);
+
+        publish(copy);
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized boolean addAll(final @NotNull Collection<? extends E> values) {
+        final Object[] added = values.toArray();
+        if (added.length == 0) return false;
+
+        final Object array = array();
+        final int length = Array.getLength(array);
+
+        final Object copy = allocate(length + added.length);
+        System.arraycopy(array, 0, copy, 0, length);
+        for (int i = 0; i < added.length; i++) store(copy, length + i, (E) added[i]);
+
+        publish(copy);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public synchronized E remove(final int index) {
+        final Object array = array();
+        final int length = Array.getLength(array);
+        final E previous = element(array, Objects.checkIndex(index, length));
+
+        final Object copy = allocate(length - 1);
+        System.arraycopy(array, 0, copy, 0, index);
+        System.arraycopy(array, index + 1, copy, index, length - index - 1);
+
+        publish(copy);
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    protected synchronized void removeRange(final int from, final int to) {
+        final Object array = array();
+        final int length = Array.getLength(array);
+        Objects.checkFromToIndex(from, to, length);
+
+        final Object copy = allocate(length - (to - from));
+        System.arraycopy(array, 0, copy, 0, from);
+        System.arraycopy(array, to, copy, from, length - to);
+
+        publish(copy);
+        modCount++;
+    }
+
+    @Override
+    public synchronized void clear() {
+        publish(allocate(0));
+        modCount++;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<E> iterator() {
+        return new Snapshot(array()).iterator();
+    }
+
+    @NotNull
+    @Override
+    public ListIterator<E> listIterator(final int index) {
+        return new Snapshot(array()).listIterator(index);
+    }
+
+    /**
+     * Read-only view of one published array, backing the iterators so that they see a single version of the list.
+     */
+    @ApiStatus.Internal
+    private final class Snapshot extends AbstractList<E> implements RandomAccess {
+        private final Object array;
+        private final int length;
+
+        private Snapshot(final @NotNull Object array) {
+            this.array = array;
+            this.length = Array.getLength(array);
+        }
+
+        @Override
+        public E get(final int index) {
+            return element(array, Objects.checkIndex(index, length));
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+}
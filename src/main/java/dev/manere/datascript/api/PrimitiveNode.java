@@ -0,0 +1,30 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scalar node holding a primitive value without boxing it.
+ * <p>
+ * {@link #value()} and {@link #set(Object)} still work with the boxed type, but the typed getters of
+ * {@link ConfigSection} and the primitive accessors of each subclass read and write the value directly.
+ *
+ * @param <V> The boxed type of the value.
+ */
+public abstract class PrimitiveNode<V> extends ScalarNode<V> {
+    private final String name;
+
+    /**
+     * Constructs a new node with the provided name.
+     *
+     * @param name The name of the node.
+     */
+    PrimitiveNode(final @NotNull String name) {
+        this.name = name;
+    }
+
+    @NotNull
+    @Override
+    public String name() {
+        return name;
+    }
+}
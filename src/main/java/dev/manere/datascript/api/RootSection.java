@@ -2,16 +2,12 @@ package dev.manere.datascript.api;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * Represents the root section of the configuration.
  * The root section can contain multiple {@link ConfigNode} instances.
  */
 public class RootSection implements SectionNode {
-    private final Set<ConfigNode> nodes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final NodeSet nodes = new NodeSet();
 
     /**
      * Retrieves the name of the root section.
@@ -25,13 +21,13 @@ public class RootSection implements SectionNode {
     }
 
     /**
-     * Returns the set of configuration nodes contained in this root section.
+     * Returns the name-indexed set of configuration nodes contained in this root section.
      *
-     * @return A set of {@link ConfigNode} instances.
+     * @return A {@link NodeSet} of child nodes.
      */
     @NotNull
     @Override
-    public Set<ConfigNode> nodes() {
+    public NodeSet nodes() {
         return nodes;
     }
 }
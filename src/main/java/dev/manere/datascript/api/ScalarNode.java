@@ -1,6 +1,7 @@
 package dev.manere.datascript.api;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Abstract class representing a scalar node in the configuration,
@@ -9,7 +10,9 @@ import org.jetbrains.annotations.NotNull;
  * @param <V> The type of value this scalar node holds.
  */
 public abstract class ScalarNode<V> implements ConfigNode {
-    private V value;
+    private volatile V value;
+
+    volatile NodeSet owner;
 
     /**
      * Constructs a new ScalarNode with the provided value.
@@ -20,6 +23,40 @@ public abstract class ScalarNode<V> implements ConfigNode {
         this.value = value;
     }
 
+    /**
+     * Constructs a new ScalarNode for subclasses that keep the value themselves,
+     * overriding {@link #value()} and {@link #set(Object)}.
+     */
+    ScalarNode() {
+    }
+
+    /**
+     * Creates a node holding the given value. Boxed primitives get a {@link PrimitiveNode}
+     * that stores them unboxed.
+     *
+     * @param name The name of the node.
+     * @param value The value of the node.
+     * @return A new node.
+     */
+    @NotNull
+    public static ScalarNode<?> of(final @NotNull String name, final @NotNull Object value) {
+        if (value instanceof Integer integer) return new IntNode(name, integer);
+        if (value instanceof Long _long) return new LongNode(name, _long);
+        if (value instanceof Double _double) return new DoubleNode(name, _double);
+        if (value instanceof Boolean bool) return new BooleanNode(name, bool);
+        if (value instanceof Short _short) return new ShortNode(name, _short);
+        if (value instanceof Byte _byte) return new ByteNode(name, _byte);
+        if (value instanceof Character character) return new CharNode(name, character);
+
+        return new ScalarNode<>(value) {
+            @NotNull
+            @Override
+            public String name() {
+                return name;
+            }
+        };
+    }
+
     /**
      * Retrieves the value of this node.
      *
@@ -31,11 +68,37 @@ public abstract class ScalarNode<V> implements ConfigNode {
     }
 
     /**
-     * Sets the value of this node.
+     * Sets the value of this node, marking the section holding it as modified.
      *
      * @param value The new value to be set.
      */
     public void set(final @NotNull V value) {
+        final V previous = this.value;
         this.value = value;
+        changed(previous);
+    }
+
+    /**
+     * Checks whether a listener would see a change of this node, so subclasses only box
+     * the previous value when it is needed.
+     *
+     * @return true if the section holding this node, or an enclosing one, has listeners.
+     */
+    final boolean observed() {
+        final NodeSet owner = this.owner;
+        return owner != null && owner.observed();
+    }
+
+    /**
+     * Marks the section holding this node as modified and notifies its listeners.
+     *
+     * @param previous The value before the change.
+     */
+    final void changed(final @Nullable Object previous) {
+        final NodeSet owner = this.owner;
+        if (owner == null) return;
+
+        owner.modified();
+        owner.changed(name(), previous, this);
     }
 }
@@ -0,0 +1,78 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compares two trees, descending only into sections whose {@link ContentHash} differs.
+ * <p>
+ * Added and removed sections are reported as a single change rather than one per nested node.
+ * A node turning from a scalar into a section, or the other way around, is reported as changed.
+ */
+@ApiStatus.Internal
+final class SectionDiff {
+    private static final Comparator<ConfigChange> BY_PATH = (first, second) -> Arrays.compare(
+        first.path().toArray(String[]::new),
+        second.path().toArray(String[]::new)
+    );
+
+    private SectionDiff() {}
+
+    /**
+     * Lists the differences between two sections.
+     *
+     * @param previous The section before.
+     * @param current  The section after.
+     * @return The changes, sorted by path.
+     */
+    @NotNull
+    static List<ConfigChange> of(final @NotNull SectionNode previous, final @NotNull SectionNode current) {
+        final List<ConfigChange> changes = new ArrayList<>();
+        diff(previous, current, new ArrayList<>(), changes);
+
+        changes.sort(BY_PATH);
+        return changes;
+    }
+
+    @ApiStatus.Internal
+    private static void diff(final @NotNull SectionNode previous, final @NotNull SectionNode current, final @NotNull List<String> path, final @NotNull List<ConfigChange> changes) {
+        if (previous == current || ContentHash.of(previous) == ContentHash.of(current)) return;
+
+        for (final ConfigNode before : previous.nodes()) {
+            final ConfigNode after = current.node(before.name());
+            path.add(before.name());
+
+            if (after == null) {
+                changes.add(new ConfigChange(List.copyOf(path), value(before), null));
+            } else if (before instanceof SectionNode beforeSection && after instanceof SectionNode afterSection) {
+                diff(beforeSection, afterSection, path, changes);
+            } else if (before instanceof SectionNode || after instanceof SectionNode || !Objects.equals(value(before), value(after))) {
+                changes.add(new ConfigChange(List.copyOf(path), value(before), value(after)));
+            }
+
+            path.removeLast();
+        }
+
+        for (final ConfigNode after : current.nodes()) {
+            if (previous.node(after.name()) != null) continue;
+
+            path.add(after.name());
+            changes.add(new ConfigChange(List.copyOf(path), null, value(after)));
+            path.removeLast();
+        }
+    }
+
+    @Nullable
+    @ApiStatus.Internal
+    private static Object value(final @NotNull ConfigNode node) {
+        if (node instanceof ScalarNode<?> scalar) return scalar.value();
+        return node instanceof SectionNode section ? new ConfigSection(section) : null;
+    }
+}
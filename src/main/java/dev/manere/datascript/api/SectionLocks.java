@@ -0,0 +1,96 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks serializing writers of the same section.
+ * <p>
+ * Each section maps to one of a fixed number of locks by the identity of its child set, so writers of
+ * unrelated sections rarely contend and no lock is ever global. Code holding several stripes must acquire them through
+ * {@link #lock(Collection)}, which takes them in index order so that concurrent transactions cannot deadlock.
+ * Readers never lock.
+ */
+@ApiStatus.Internal
+final class SectionLocks {
+    private static final ReentrantLock[] STRIPES = new ReentrantLock[64];
+
+    static {
+        for (int i = 0; i < STRIPES.length; i++) STRIPES[i] = new ReentrantLock();
+    }
+
+    private SectionLocks() {}
+
+    /**
+     * Returns the lock guarding writes to a section.
+     *
+     * @param section The section.
+     * @return The lock of its stripe.
+     */
+    @NotNull
+    static ReentrantLock of(final @NotNull SectionNode section) {
+        return STRIPES[index(section)];
+    }
+
+    /**
+     * Acquires the locks of every given section, in a global order.
+     *
+     * @param sections The sections.
+     * @return The acquired locks, to be passed to {@link #unlock(boolean[])}.
+     */
+    static boolean @NotNull [] lock(final @NotNull Collection<SectionNode> sections) {
+        final boolean[] held = new boolean[STRIPES.length];
+        for (final SectionNode section : sections) held[index(section)] = true;
+
+        for (int i = 0; i < held.length; i++) if (held[i]) STRIPES[i].lock();
+        return held;
+    }
+
+    /**
+     * Acquires every lock, in the same order as {@link #lock(Collection)}, blocking all writers that lock.
+     * Must not be called by a thread that already holds one, see {@link #holding()}.
+     *
+     * @return The acquired locks, to be passed to {@link #unlock(boolean[])}.
+     */
+    static boolean @NotNull [] lockAll() {
+        final boolean[] held = new boolean[STRIPES.length];
+        Arrays.fill(held, true);
+
+        for (final ReentrantLock stripe : STRIPES) stripe.lock();
+        return held;
+    }
+
+    /**
+     * Checks whether the current thread holds any lock, such as inside a listener of a change made under one.
+     *
+     * @return true if a lock is held.
+     */
+    static boolean holding() {
+        for (final ReentrantLock stripe : STRIPES) if (stripe.isHeldByCurrentThread()) return true;
+        return false;
+    }
+
+    /**
+     * Releases locks acquired through {@link #lock(Collection)} or {@link #lockAll()}.
+     *
+     * @param held The acquired locks.
+     */
+    static void unlock(final boolean @NotNull [] held) {
+        for (int i = held.length - 1; i >= 0; i--) if (held[i]) STRIPES[i].unlock();
+    }
+
+    /**
+     * Picks the stripe of a section by the identity of its child set rather than of the node, so that
+     * handles taken before a rename, which wrap the same set in another node, lock the same stripe.
+     */
+    @ApiStatus.Internal
+    private static int index(final @NotNull SectionNode section) {
+        final Object key = section instanceof IndexedSectionNode indexed ? indexed.set() : section.nodes();
+        final int hash = System.identityHashCode(key);
+        return (hash ^ (hash >>> 16)) & (STRIPES.length - 1);
+    }
+}
@@ -1,6 +1,8 @@
 package dev.manere.datascript.api;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.Set;
 
 /**
@@ -16,4 +18,22 @@ public interface SectionNode extends ConfigNode {
      */
     @NotNull
     Set<ConfigNode> nodes();
+
+    /**
+     * Retrieves a child node by its name.
+     * <p>
+     * Sections backed by a {@link NodeSet} answer in constant time, other implementations fall back
+     * to scanning {@link #nodes()}.
+     *
+     * @param name The name of the child node.
+     * @return The child node, or null if not found.
+     */
+    @Nullable
+    default ConfigNode node(final @NotNull String name) {
+        final Set<ConfigNode> nodes = nodes();
+        if (nodes instanceof NodeSet indexed) return indexed.get(name);
+
+        for (final ConfigNode node : nodes) if (node.name().equals(name)) return node;
+        return null;
+    }
 }
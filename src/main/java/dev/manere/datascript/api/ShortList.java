@@ -0,0 +1,136 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * List of short values backed by a {@code short[]}, so elements are not boxed while stored.
+ * <p>
+ * Homogeneous short lists are loaded into this type. Reading through {@link #getShort(int)} or
+ * {@link #shorts()} never boxes; the {@link java.util.List} methods box on the way in and out.
+ * The list is copy-on-write: reads never lock and writes copy the array, so it can be shared between
+ * threads and iterated while it is modified.
+ */
+public final class ShortList extends PrimitiveList<Short> {
+    private volatile short[] values;
+
+    /**
+     * Constructs a new, empty list.
+     */
+    public ShortList() {
+        this(new short[0]);
+    }
+
+    /**
+     * Constructs a new list backed by the given array, which must not be modified afterwards.
+     *
+     * @param values The elements of the list.
+     */
+    public ShortList(final short @NotNull [] values) {
+        this.values = values;
+    }
+
+    /**
+     * Returns the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @return The element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public short getShort(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Replaces the element at the given position without boxing it.
+     *
+     * @param index The position of the element.
+     * @param value The new element.
+     * @return The previous element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public synchronized short setShort(final int index, final short value) {
+        final short[] values = this.values.clone();
+        final short previous = values[index];
+        values[index] = value;
+        this.values = values;
+        return previous;
+    }
+
+    /**
+     * Appends an element without boxing it.
+     *
+     * @param value The element to append.
+     */
+    public synchronized void addShort(final short value) {
+        final short[] values = Arrays.copyOf(this.values, this.values.length + 1);
+        values[values.length - 1] = value;
+        this.values = values;
+        modCount++;
+    }
+
+    /**
+     * Returns a sequential stream over the elements as they are when this is called.
+     *
+     * @return A stream of the elements.
+     */
+    @NotNull
+    public IntStream shorts() {
+        final short[] values = this.values;
+        return IntStream.range(0, values.length).map(index -> values[index]);
+    }
+
+    /**
+     * Returns a copy of the elements.
+     *
+     * @return A new array holding the elements.
+     */
+    public short @NotNull [] toShortArray() {
+        return values.clone();
+    }
+
+    @Override
+    public Short get(final int index) {
+        return getShort(index);
+    }
+
+    @Override
+    public Short set(final int index, final @NotNull Short value) {
+        return setShort(index, value);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @NotNull
+    @Override
+    short @NotNull [] array() {
+        return values;
+    }
+
+    @Override
+    void publish(final @NotNull Object array) {
+        values = (short[]) array;
+    }
+
+    @NotNull
+    @Override
+    Object allocate(final int length) {
+        return new short[length];
+    }
+
+    @NotNull
+    @Override
+    Short element(final @NotNull Object array, final int index) {
+        return ((short[]) array)[index];
+    }
+
+    @Override
+    void store(final @NotNull Object array, final int index, final @NotNull Short value) {
+        ((short[]) array)[index] = value;
+    }
+}
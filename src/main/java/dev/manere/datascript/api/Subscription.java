@@ -0,0 +1,12 @@
+package dev.manere.datascript.api;
+
+/**
+ * Handle to a listener registered through {@link ConfigSection#listen}.
+ */
+@FunctionalInterface
+public interface Subscription {
+    /**
+     * Removes the listener. Events already handed to an executor may still be delivered.
+     */
+    void unsubscribe();
+}
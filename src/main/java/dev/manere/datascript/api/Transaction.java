@@ -0,0 +1,192 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Batch of changes applied atomically by {@link ConfigSection#transaction}.
+ * <p>
+ * Sets, unsets and renames are only recorded while the transaction body runs. Once it returns, the
+ * sections they touch are locked together and every change is applied, so other writers of those
+ * sections and snapshot readers see either none or all of them. If applying a change fails, the ones
+ * already applied are undone before the failure is rethrown. Sections opened through
+ * {@link #section(String)} are created right away if they are missing.
+ * <p>
+ * Listeners are told about the changes once all of them are applied and the locks are released, so
+ * they see the whole transaction and may start another one. Undone changes are never reported.
+ */
+public final class Transaction {
+    private final ConfigSection section;
+    private final List<Change> changes;
+
+    /**
+     * Constructs a new transaction on a section, recording into the given list.
+     *
+     * @param section The section changes apply to.
+     * @param changes The recorded changes, shared by every section of the transaction.
+     */
+    private Transaction(final @NotNull ConfigSection section, final @NotNull List<Change> changes) {
+        this.section = section;
+        this.changes = changes;
+    }
+
+    /**
+     * Records that the value of a key is set, as {@link ConfigSection#set(String, Object)} would.
+     *
+     * @param key   the key of the configuration node
+     * @param value the value to set, or null to remove the node
+     * @return this transaction
+     */
+    @NotNull
+    public Transaction set(final @NotNull String key, final @Nullable Object value) {
+        changes.add(new Change(section, key, value, null));
+        return this;
+    }
+
+    /**
+     * Records that a key is removed, as {@link ConfigSection#unset(String)} would.
+     *
+     * @param key the key of the configuration node
+     * @return this transaction
+     */
+    @NotNull
+    public Transaction unset(final @NotNull String key) {
+        return set(key, null);
+    }
+
+    /**
+     * Records that a key is renamed, as {@link ConfigSection#rename(String, String)} would.
+     *
+     * @param key    the current key of the configuration node
+     * @param newKey the new key
+     * @return this transaction
+     */
+    @NotNull
+    public Transaction rename(final @NotNull String key, final @NotNull String newKey) {
+        changes.add(new Change(section, key, null, newKey));
+        return this;
+    }
+
+    /**
+     * Returns the part of this transaction that applies to a subsection, creating the subsection if needed.
+     *
+     * @param key the key of the subsection
+     * @return a transaction on the subsection, committed together with this one
+     */
+    @NotNull
+    public Transaction section(final @NotNull String key) {
+        return new Transaction(section.sectionOrNew(key), changes);
+    }
+
+    /**
+     * Runs a transaction body and applies what it recorded.
+     *
+     * @param section The section the transaction starts at.
+     * @param body    The transaction body.
+     */
+    @ApiStatus.Internal
+    static void run(final @NotNull ConfigSection section, final @NotNull Consumer<Transaction> body) {
+        final List<Change> changes = new ArrayList<>();
+        body.accept(new Transaction(section, changes));
+        if (changes.isEmpty()) return;
+
+        final Set<SectionNode> sections = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Change change : changes) {
+            // Load lazy sections now rather than while holding the locks.
+            final SectionNode target = change.section().section();
+            target.nodes();
+            sections.add(target);
+
+            if (change.newKey() != null && target.node(change.key()) instanceof SectionNode renamed) renamed.nodes();
+        }
+
+        final List<Runnable> events = ChangeListeners.hold();
+        final List<Undo> undo = new ArrayList<>();
+        boolean applied = false;
+
+        try {
+            final boolean[] held = SectionLocks.lock(sections);
+            final List<NodeSet> writing = new ArrayList<>();
+
+            try {
+                for (final SectionNode node : sections) {
+                    if (node.nodes() instanceof NodeSet set) set.beginWrite(writing);
+                }
+
+                try {
+                    for (final Change change : changes) {
+                        final SectionNode target = change.section().section();
+                        undo.add(Undo.of(target, change.key()));
+
+                        if (change.newKey() != null) {
+                            undo.add(Undo.of(target, change.newKey()));
+                            change.section().rename(change.key(), change.newKey());
+                        } else {
+                            change.section().set(change.key(), change.value());
+                        }
+                    }
+                } catch (final Throwable e) {
+                    for (int i = undo.size() - 1; i >= 0; i--) undo.get(i).restore();
+                    throw e;
+                }
+            } finally {
+                NodeSet.endWrite(writing);
+                SectionLocks.unlock(held);
+            }
+
+            applied = true;
+        } finally {
+            ChangeListeners.release(events, applied);
+        }
+    }
+
+    /**
+     * A recorded change.
+     *
+     * @param section The section it applies to.
+     * @param key     The key it applies to.
+     * @param value   The value to set, or null to unset the key or for renames.
+     * @param newKey  The new key for renames, otherwise null.
+     */
+    @ApiStatus.Internal
+    private record Change(@NotNull ConfigSection section, @NotNull String key, @Nullable Object value, @Nullable String newKey) {
+    }
+
+    /**
+     * The state of a key before a change, restored if the transaction fails.
+     *
+     * @param section The section holding the key.
+     * @param key     The key.
+     * @param node    The node stored under the key, or null if there was none.
+     * @param value   The value of the node if it is a scalar, which setting it changes in place.
+     */
+    @ApiStatus.Internal
+    private record Undo(@NotNull SectionNode section, @NotNull String key, @Nullable ConfigNode node, @Nullable Object value) {
+        @NotNull
+        static Undo of(final @NotNull SectionNode section, final @NotNull String key) {
+            final ConfigNode node = section.node(key);
+            return new Undo(section, key, node, node instanceof ScalarNode<?> scalar ? scalar.value() : null);
+        }
+
+        @SuppressWarnings("unchecked")
+        void restore() {
+            final ConfigNode current = section.node(key);
+
+            if (node == null) {
+                if (current != null) section.nodes().remove(current);
+                return;
+            }
+
+            if (node instanceof ScalarNode<?> scalar && value != null) ((ScalarNode<Object>) scalar).set(value);
+            if (current == node) return;
+
+            // A NodeSet replaces the node in one step, other sets need the current one removed first.
+            if (current != null && !(section.nodes() instanceof NodeSet)) section.nodes().remove(current);
+            section.nodes().add(node);
+        }
+    }
+}
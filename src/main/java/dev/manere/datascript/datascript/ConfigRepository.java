@@ -0,0 +1,296 @@
+package dev.manere.datascript.datascript;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A directory of DataScript files, each exposed as a {@link DataScriptConfiguration} under its path
+ * relative to the directory, such as {@code players/8f14e45f.ds}.
+ * <p>
+ * {@link #load()} discovers every file below the directory and loads them in parallel. A fixed number
+ * of workers take files from a shared list, so the number of files in flight never exceeds the
+ * parallelism no matter how many files there are, and each worker is a single task on the executor.
+ */
+public final class ConfigRepository {
+    private static final Executor VIRTUAL_THREADS = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("DataScript Loader-", 0).factory());
+
+    private final Path directory;
+    private final String extension;
+    private final int parallelism;
+    private final Executor executor;
+    private final Consumer<DataScriptConfiguration.Builder> options;
+    private final Map<String, DataScriptConfiguration> configurations = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new repository from the options of a builder.
+     *
+     * @param builder The builder holding the options.
+     */
+    private ConfigRepository(final @NotNull Builder builder) {
+        this.directory = builder.directory.toPath().toAbsolutePath().normalize();
+        this.extension = builder.extension;
+        this.parallelism = builder.parallelism;
+        this.executor = builder.executor == null ? VIRTUAL_THREADS : builder.executor;
+        this.options = builder.options;
+    }
+
+    /**
+     * Returns a new {@link Builder} instance to create a repository.
+     *
+     * @return A new Builder.
+     */
+    @NotNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Discovers every file below the directory and loads it, blocking until all of them are loaded.
+     * Files that were loaded before are loaded again into their existing configuration.
+     *
+     * @throws RuntimeException if the directory cannot be listed or a file fails to load.
+     */
+    public void load() {
+        try {
+            loadAsync().join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Discovers every file below the directory and loads them in the background.
+     * Files that were loaded before are loaded again into their existing configuration.
+     * <p>
+     * A file failing to load does not stop the others. The returned future then completes with the
+     * first failure, the other ones being attached as suppressed exceptions.
+     *
+     * @return A future completing once every file was loaded.
+     */
+    @NotNull
+    public CompletableFuture<Void> loadAsync() {
+        final List<Path> files;
+        try {
+            files = discover();
+        } catch (final IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException(e));
+        }
+
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final int workers = Math.min(parallelism, files.size());
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+
+        for (int i = 0; i < workers; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> {
+                for (int index; (index = next.getAndIncrement()) < files.size(); ) {
+                    try {
+                        configuration(key(files.get(index))).loadFromDisk();
+                    } catch (final RuntimeException e) {
+                        if (!failure.compareAndSet(null, e)) failure.get().addSuppressed(e);
+                    }
+                }
+            }, executor);
+        }
+
+        return CompletableFuture.allOf(futures).thenRun(() -> {
+            final RuntimeException e = failure.get();
+            if (e != null) throw e;
+        });
+    }
+
+    /**
+     * Returns the configuration stored under the given relative path.
+     *
+     * @param path The path relative to the directory, using {@code /} as separator.
+     * @return The configuration, or null if it was neither loaded nor created.
+     */
+    @Nullable
+    public DataScriptConfiguration get(final @NotNull String path) {
+        return configurations.get(path);
+    }
+
+    /**
+     * Returns the configuration stored under the given relative path, creating an empty one if needed.
+     * A created configuration is only written once it is saved.
+     *
+     * @param path The path relative to the directory, using {@code /} as separator.
+     * @return The configuration.
+     * @throws IllegalArgumentException if the path leaves the directory.
+     */
+    @NotNull
+    public DataScriptConfiguration configuration(final @NotNull String path) {
+        final DataScriptConfiguration existing = configurations.get(path);
+        if (existing != null) return existing;
+
+        final Path file = directory.resolve(path).normalize();
+        if (!file.startsWith(directory)) throw new IllegalArgumentException("Path " + path + " is outside of " + directory);
+
+        return configurations.computeIfAbsent(key(file), key -> {
+            final DataScriptConfiguration.Builder builder = DataScriptConfiguration.builder();
+            options.accept(builder);
+            return builder.file(file.toFile()).build();
+        });
+    }
+
+    /**
+     * Returns every configuration of the repository by relative path.
+     *
+     * @return An unmodifiable view of the configurations.
+     */
+    @NotNull
+    @Unmodifiable
+    public Map<String, DataScriptConfiguration> configurations() {
+        return Collections.unmodifiableMap(configurations);
+    }
+
+    /**
+     * Saves every configuration of the repository, creating missing directories.
+     *
+     * @throws RuntimeException if a directory cannot be created or a file fails to save.
+     */
+    public void saveAll() {
+        for (final DataScriptConfiguration configuration : configurations.values()) {
+            try {
+                Files.createDirectories(configuration.file().toPath().getParent());
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            configuration.saveToDisk();
+        }
+    }
+
+    /**
+     * Returns the directory of the repository.
+     *
+     * @return The directory.
+     */
+    @NotNull
+    public File directory() {
+        return directory.toFile();
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private List<Path> discover() throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+
+        try (final Stream<Path> paths = Files.walk(directory)) {
+            return paths
+                .filter(path -> path.getFileName().toString().endsWith(extension))
+                .filter(Files::isRegularFile)
+                .toList();
+        }
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private String key(final @NotNull Path file) {
+        return directory.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Builder class for {@link ConfigRepository}.
+     */
+    public static class Builder {
+        private File directory;
+        private String extension = ".ds";
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private Executor executor;
+        private Consumer<DataScriptConfiguration.Builder> options = builder -> {};
+
+        /**
+         * Sets the directory holding the files.
+         *
+         * @param directory The directory.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder directory(final @NotNull File directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Sets the extension of the files to load. Defaults to {@code .ds}.
+         *
+         * @param extension The extension, including the dot.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder extension(final @NotNull String extension) {
+            this.extension = extension;
+            return this;
+        }
+
+        /**
+         * Sets how many files are loaded at the same time. Defaults to the number of available processors.
+         *
+         * @param parallelism The maximum number of files loading at once.
+         * @return This builder instance.
+         * @throws IllegalArgumentException if the parallelism is not positive.
+         */
+        @NotNull
+        public Builder parallelism(final int parallelism) {
+            if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be positive");
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the loading workers. Defaults to a virtual thread per worker.
+         *
+         * @param executor The executor.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder executor(final @NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets options applied to the builder of every configuration, such as {@link DataScriptConfiguration.Builder#lazy(boolean)}.
+         * The file is set by the repository.
+         *
+         * @param options Configures each configuration builder.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder options(final @NotNull Consumer<DataScriptConfiguration.Builder> options) {
+            this.options = options;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new {@link ConfigRepository}.
+         *
+         * @return A new repository instance.
+         * @throws NullPointerException if the directory is not set.
+         */
+        @NotNull
+        public ConfigRepository build() {
+            if (directory == null) throw new NullPointerException();
+            return new ConfigRepository(this);
+        }
+    }
+}
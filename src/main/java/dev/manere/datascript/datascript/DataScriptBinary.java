@@ -0,0 +1,570 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigNode;
+import dev.manere.datascript.api.IndexedSectionNode;
+import dev.manere.datascript.api.KeyPool;
+import dev.manere.datascript.api.ScalarNode;
+import dev.manere.datascript.api.SectionNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Encoder and decoder for the binary DataScript format.
+ * <p>
+ * Layout, with every integer big-endian and {@code varint} meaning an unsigned LEB128 value:
+ * <pre>
+ * file    := magic(00 'D' 'S' 'B') version(u8) keyCount(varint) key* body
+ * key     := length(varint) utf8
+ * body    := childCount(varint) node*
+ * node    := tag(u8) keyIndex(varint) payload
+ * section := TAG_SECTION keyIndex length(u32) body
+ * </pre>
+ * Keys are stored once in a table and referenced by index. Section bodies are prefixed with their byte
+ * length so readers can skip them. Scalars carry the same types as the text format: byte, short, int
+ * (zigzag varint), long (zigzag varint), double, char, boolean, string, UUID and lists, whose elements
+ * are encoded as tag and payload without a key.
+ */
+@ApiStatus.Internal
+final class DataScriptBinary {
+    private static final byte[] MAGIC = {0, 'D', 'S', 'B'};
+    private static final int VERSION = 1;
+
+    private static final int TAG_SECTION = 1;
+    private static final int TAG_BYTE = 2;
+    private static final int TAG_SHORT = 3;
+    private static final int TAG_INT = 4;
+    private static final int TAG_LONG = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_CHAR = 7;
+    private static final int TAG_TRUE = 8;
+    private static final int TAG_FALSE = 9;
+    private static final int TAG_STRING = 10;
+    private static final int TAG_UUID = 11;
+    private static final int TAG_LIST = 12;
+
+    private static final int OP_PUT = 1;
+    private static final int OP_REMOVE = 2;
+
+    private final Map<String, Integer> keys = new LinkedHashMap<>();
+
+    private byte[] buffer = new byte[8192];
+    private int length;
+
+    private DataScriptBinary() {}
+
+    /**
+     * Checks whether the given bytes start with the binary format's magic number.
+     *
+     * @param buffer The buffer to check, its position is left untouched.
+     * @return true if the buffer holds a binary document.
+     */
+    static boolean isBinary(final @NotNull ByteBuffer buffer) {
+        if (buffer.remaining() < MAGIC.length) return false;
+
+        for (int i = 0; i < MAGIC.length; i++) if (buffer.get(buffer.position() + i) != MAGIC[i]) return false;
+        return true;
+    }
+
+    /**
+     * Checks whether the given file starts with the binary format's magic number.
+     *
+     * @param file The file to check.
+     * @return true if the file holds a binary document.
+     * @throws IOException if the file cannot be read.
+     */
+    static boolean isBinary(final @NotNull File file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+            while (header.hasRemaining() && channel.read(header) >= 0) {}
+
+            return isBinary(header.flip());
+        }
+    }
+
+    /**
+     * Reads the whole file, either into memory or by mapping it.
+     *
+     * @param file   The file to read.
+     * @param mapped Whether to memory-map the file.
+     * @return The contents of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    @NotNull
+    static ByteBuffer bytes(final @NotNull File file, final boolean mapped) throws IOException {
+        if (!mapped) return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Encodes the children of the given section.
+     *
+     * @param root The section whose children are encoded at the top level.
+     * @param out  The stream receiving the encoded document.
+     * @throws IOException if the stream fails.
+     */
+    static void write(final @NotNull SectionNode root, final @NotNull OutputStream out) throws IOException {
+        final DataScriptBinary encoder = new DataScriptBinary();
+        encoder.body(root);
+
+        final byte[] body = encoder.buffer;
+        final int bodyLength = encoder.length;
+
+        encoder.buffer = new byte[Math.max(64, encoder.keys.size() * 16)];
+        encoder.length = 0;
+
+        encoder.bytes(MAGIC, 0, MAGIC.length);
+        encoder.u8(VERSION);
+        encoder.varint(encoder.keys.size());
+        for (final String key : encoder.keys.keySet()) encoder.string(key);
+
+        out.write(encoder.buffer, 0, encoder.length);
+        out.write(body, 0, bodyLength);
+    }
+
+    /**
+     * Decodes a binary document, pushing its contents to the given handler.
+     *
+     * @param buffer  The encoded document.
+     * @param handler The handler receiving the events.
+     * @throws IOException if the document is malformed.
+     */
+    static void read(final @NotNull ByteBuffer buffer, final @NotNull DataScriptHandler handler) throws IOException {
+        try {
+            body(buffer, keys(buffer), handler);
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed binary DataScript document", e);
+        }
+    }
+
+    /**
+     * Decodes the top-level nodes of a document into the given section, leaving every section lazy.
+     * Section bodies are decoded from the buffer when they are first accessed, so the buffer must not
+     * be modified afterwards.
+     *
+     * @param buffer The buffer holding the document, positioned at its start.
+     * @param target The section receiving the nodes.
+     * @throws IOException if the document is malformed or of an unsupported version.
+     */
+    static void readLazily(final @NotNull ByteBuffer buffer, final @NotNull SectionNode target) throws IOException {
+        try {
+            lazyBody(buffer, keys(buffer), target);
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed binary DataScript document", e);
+        }
+    }
+
+    /**
+     * Encodes a change to a single node, as stored in a {@link Journal}.
+     * <pre>
+     * change := depth(varint) parentKey* op
+     * op     := OP_REMOVE key | OP_PUT keyCount(varint) key* body
+     * </pre>
+     * The body of a put holds the node alone, with the same layout as a document body.
+     *
+     * @param parent The keys leading from the root to the section holding the node.
+     * @param key    The key of the node.
+     * @param node   The node as it is now, or null if it was removed.
+     * @return The encoded change.
+     */
+    static byte @NotNull [] change(final @NotNull List<String> parent, final @NotNull String key, final @Nullable ConfigNode node) {
+        final DataScriptBinary encoder = new DataScriptBinary();
+        if (node != null) {
+            encoder.varint(1);
+            encoder.node(node);
+        }
+
+        final byte[] body = encoder.buffer;
+        final int bodyLength = encoder.length;
+
+        encoder.buffer = new byte[64];
+        encoder.length = 0;
+
+        encoder.varint(parent.size());
+        for (final String parentKey : parent) encoder.string(parentKey);
+
+        if (node == null) {
+            encoder.u8(OP_REMOVE);
+            encoder.string(key);
+        } else {
+            encoder.u8(OP_PUT);
+            encoder.varint(encoder.keys.size());
+            for (final String bodyKey : encoder.keys.keySet()) encoder.string(bodyKey);
+            encoder.bytes(body, 0, bodyLength);
+        }
+
+        return Arrays.copyOf(encoder.buffer, encoder.length);
+    }
+
+    /**
+     * Applies a change encoded by {@link #change(List, String, ConfigNode)} to a tree, creating the
+     * sections leading to the node if needed.
+     *
+     * @param buffer The encoded change.
+     * @param root   The root of the tree.
+     * @throws IOException if the change is malformed.
+     */
+    static void apply(final @NotNull ByteBuffer buffer, final @NotNull SectionNode root) throws IOException {
+        try {
+            SectionNode section = root;
+
+            final int depth = varint(buffer);
+            for (int i = 0; i < depth; i++) {
+                final String key = KeyPool.intern(string(buffer));
+
+                if (!(section.node(key) instanceof SectionNode child)) {
+                    final SectionNode created = new IndexedSectionNode(key);
+                    section.nodes().add(created);
+                    section = created;
+                } else {
+                    section = child;
+                }
+            }
+
+            final int op = buffer.get() & 0xFF;
+
+            if (op == OP_REMOVE) {
+                final ConfigNode node = section.node(string(buffer));
+                if (node != null) section.nodes().remove(node);
+            } else if (op == OP_PUT) {
+                final IndexedSectionNode parsed = new IndexedSectionNode(section.name());
+                body(buffer, keyTable(buffer), new DataScriptTreeBuilder(parsed));
+                for (final ConfigNode node : parsed.nodes().toArray(new ConfigNode[0])) section.nodes().add(node);
+            } else {
+                throw new IOException("Unknown journal operation " + op);
+            }
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed journal record", e);
+        }
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static String @NotNull [] keys(final @NotNull ByteBuffer buffer) throws IOException {
+        if (!isBinary(buffer)) throw new IOException("Not a binary DataScript document");
+        buffer.position(buffer.position() + MAGIC.length);
+
+        final int version = buffer.get() & 0xFF;
+        if (version != VERSION) throw new IOException("Unsupported binary DataScript version " + version);
+
+        return keyTable(buffer);
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static String @NotNull [] keyTable(final @NotNull ByteBuffer buffer) throws IOException {
+        final int keyCount = varint(buffer);
+        if (keyCount > buffer.remaining()) throw new IOException("Malformed binary DataScript document");
+
+        final String[] keys = new String[keyCount];
+        for (int i = 0; i < keys.length; i++) keys[i] = KeyPool.intern(string(buffer));
+
+        return keys;
+    }
+
+    @ApiStatus.Internal
+    private static void lazyBody(final @NotNull ByteBuffer buffer, final String @NotNull [] keys, final @NotNull SectionNode target) throws IOException {
+        final DataScriptTreeBuilder builder = new DataScriptTreeBuilder(target);
+        final int count = varint(buffer);
+
+        for (int i = 0; i < count; i++) {
+            final int tag = buffer.get() & 0xFF;
+            final String key = keys[varint(buffer)];
+
+            if (tag == TAG_SECTION) {
+                final int length = buffer.getInt();
+                final ByteBuffer body = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+
+                target.nodes().add(new LazySectionNode(key, section -> {
+                    try {
+                        lazyBody(body.duplicate(), keys, section);
+                    } catch (final BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+                        throw new IOException("Malformed binary DataScript document", e);
+                    }
+                }));
+            } else if (tag == TAG_LIST) {
+                final int size = varint(buffer);
+
+                builder.startList(key);
+                for (int j = 0; j < size; j++) builder.listElement(value(buffer, buffer.get() & 0xFF));
+                builder.endList();
+            } else {
+                builder.scalar(key, value(buffer, tag));
+            }
+        }
+    }
+
+    @ApiStatus.Internal
+    private static void body(final @NotNull ByteBuffer buffer, final String @NotNull [] keys, final @NotNull DataScriptHandler handler) throws IOException {
+        final int count = varint(buffer);
+
+        for (int i = 0; i < count; i++) {
+            final int tag = buffer.get() & 0xFF;
+            final String key = keys[varint(buffer)];
+
+            if (tag == TAG_SECTION) {
+                final int length = buffer.getInt();
+                final int end = buffer.position() + length;
+
+                handler.startSection(key);
+                body(buffer, keys, handler);
+                handler.endSection();
+
+                if (buffer.position() != end) throw new IOException("Section '" + key + "' has an invalid length");
+            } else if (tag == TAG_LIST) {
+                final int size = varint(buffer);
+
+                handler.startList(key);
+                for (int j = 0; j < size; j++) handler.listElement(value(buffer, buffer.get() & 0xFF));
+                handler.endList();
+            } else {
+                handler.scalar(key, value(buffer, tag));
+            }
+        }
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static Object value(final @NotNull ByteBuffer buffer, final int tag) throws IOException {
+        return switch (tag) {
+            case TAG_BYTE -> buffer.get();
+            case TAG_SHORT -> buffer.getShort();
+            case TAG_INT -> (int) zigzag(buffer);
+            case TAG_LONG -> zigzag(buffer);
+            case TAG_DOUBLE -> buffer.getDouble();
+            case TAG_CHAR -> buffer.getChar();
+            case TAG_TRUE -> true;
+            case TAG_FALSE -> false;
+            case TAG_STRING -> string(buffer);
+            case TAG_UUID -> new UUID(buffer.getLong(), buffer.getLong());
+            case TAG_LIST -> {
+                final int size = varint(buffer);
+                final List<Object> list = new ArrayList<>(Math.min(size, buffer.remaining()));
+                for (int i = 0; i < size; i++) list.add(value(buffer, buffer.get() & 0xFF));
+                yield Collections.synchronizedList(list);
+            }
+            default -> throw new IOException("Unknown tag " + tag);
+        };
+    }
+
+    @NotNull
+    @ApiStatus.Internal
+    private static String string(final @NotNull ByteBuffer buffer) {
+        final int length = varint(buffer);
+
+        if (buffer.hasArray()) {
+            final String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return string;
+        }
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @ApiStatus.Internal
+    private static int varint(final @NotNull ByteBuffer buffer) {
+        final long value = varlong(buffer);
+        if (value > Integer.MAX_VALUE) throw new IllegalArgumentException("Length out of range: " + value);
+        return (int) value;
+    }
+
+    @ApiStatus.Internal
+    private static long varlong(final @NotNull ByteBuffer buffer) {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    @ApiStatus.Internal
+    private static long zigzag(final @NotNull ByteBuffer buffer) {
+        final long value = varlong(buffer);
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    @ApiStatus.Internal
+    private void body(final @NotNull SectionNode section) {
+        // Copy the children first, so the count prefix matches even if the set changes meanwhile.
+        final ConfigNode[] children = section.nodes().toArray(new ConfigNode[0]);
+
+        int count = 0;
+        for (final ConfigNode child : children) if (child instanceof SectionNode || child instanceof ScalarNode<?>) count++;
+        varint(count);
+
+        for (final ConfigNode node : children) node(node);
+    }
+
+    @ApiStatus.Internal
+    private void node(final @NotNull ConfigNode node) {
+        if (node instanceof SectionNode child) {
+            u8(TAG_SECTION);
+            varint(key(child.name()));
+
+            final int lengthPosition = length;
+            ensure(4);
+            length += 4;
+
+            body(child);
+            putInt(lengthPosition, length - lengthPosition - 4);
+        } else if (node instanceof ScalarNode<?> scalar) {
+            final Object value = scalar.value();
+            final int tag = tag(value);
+
+            u8(tag);
+            varint(key(scalar.name()));
+            payload(tag, value);
+        }
+    }
+
+    @ApiStatus.Internal
+    private int key(final @NotNull String key) {
+        final Integer index = keys.get(key);
+        if (index != null) return index;
+
+        final int next = keys.size();
+        keys.put(key, next);
+        return next;
+    }
+
+    @ApiStatus.Internal
+    private static int tag(final @NotNull Object value) {
+        return switch (value) {
+            case Byte ignored -> TAG_BYTE;
+            case Short ignored -> TAG_SHORT;
+            case Integer ignored -> TAG_INT;
+            case Long ignored -> TAG_LONG;
+            case Double ignored -> TAG_DOUBLE;
+            case Character ignored -> TAG_CHAR;
+            case Boolean bool -> bool ? TAG_TRUE : TAG_FALSE;
+            case UUID ignored -> TAG_UUID;
+            case List<?> ignored -> TAG_LIST;
+            default -> TAG_STRING;
+        };
+    }
+
+    @ApiStatus.Internal
+    private void payload(final int tag, final @NotNull Object value) {
+        switch (tag) {
+            case TAG_BYTE -> u8((Byte) value);
+            case TAG_SHORT -> {
+                final short s = (Short) value;
+                u8(s >> 8);
+                u8(s);
+            }
+            case TAG_INT -> varlong(zigzag((Integer) value));
+            case TAG_LONG -> varlong(zigzag((Long) value));
+            case TAG_DOUBLE -> putLong(Double.doubleToRawLongBits((Double) value));
+            case TAG_CHAR -> {
+                final char c = (Character) value;
+                u8(c >> 8);
+                u8(c);
+            }
+            case TAG_UUID -> {
+                putLong(((UUID) value).getMostSignificantBits());
+                putLong(((UUID) value).getLeastSignificantBits());
+            }
+            case TAG_LIST -> {
+                final List<?> list = (List<?>) value;
+                final Object[] elements;
+                synchronized (list) {
+                    elements = list.toArray();
+                }
+
+                varint(elements.length);
+                for (final Object element : elements) {
+                    final Object item = element == null ? "null" : element;
+                    final int elementTag = tag(item);
+
+                    u8(elementTag);
+                    payload(elementTag, item);
+                }
+            }
+            case TAG_STRING -> string(String.valueOf(value));
+            default -> {}
+        }
+    }
+
+    @ApiStatus.Internal
+    private void string(final @NotNull String string) {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        varint(bytes.length);
+        bytes(bytes, 0, bytes.length);
+    }
+
+    @ApiStatus.Internal
+    private static long zigzag(final long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    @ApiStatus.Internal
+    private void varint(final int value) {
+        varlong(value & 0xFFFFFFFFL);
+    }
+
+    @ApiStatus.Internal
+    private void varlong(long value) {
+        ensure(10);
+
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+
+        buffer[length++] = (byte) value;
+    }
+
+    @ApiStatus.Internal
+    private void u8(final int value) {
+        ensure(1);
+        buffer[length++] = (byte) value;
+    }
+
+    @ApiStatus.Internal
+    private void putLong(final long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) buffer[length++] = (byte) (value >> shift);
+    }
+
+    @ApiStatus.Internal
+    private void putInt(final int position, final int value) {
+        buffer[position] = (byte) (value >> 24);
+        buffer[position + 1] = (byte) (value >> 16);
+        buffer[position + 2] = (byte) (value >> 8);
+        buffer[position + 3] = (byte) value;
+    }
+
+    @ApiStatus.Internal
+    private void bytes(final byte @NotNull [] bytes, final int offset, final int count) {
+        ensure(count);
+        System.arraycopy(bytes, offset, buffer, length, count);
+        length += count;
+    }
+
+    @ApiStatus.Internal
+    private void ensure(final int extra) {
+        final int required = length + extra;
+        if (required > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+    }
+}
@@ -3,21 +3,56 @@ package dev.manere.datascript.datascript;
 import dev.manere.datascript.api.*;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * Implementation of the {@link Configuration} interface that provides
  * methods to load, save, and manage configuration data.
  */
-public class DataScriptConfiguration implements Configuration {
+public class DataScriptConfiguration implements Configuration, AutoCloseable {
     private final File file;
+    private final DataScriptFormat format;
+    private final boolean memoryMapped;
+    private final boolean lazy;
+    private final boolean parallel;
+    private final long parallelThreshold;
+    private final boolean atomicWrites;
+    private final boolean fsync;
+    private final boolean writeBehind;
+    private final boolean skipUnchanged;
+    private final Journal journal;
+    private final long journalThreshold;
+    private final Executor executor;
+    private final Executor asyncExecutor;
+    private final Duration reloadDelay;
+    private final FileWatcher watcher;
+    private final AtomicLong changes = new AtomicLong();
     private final ConfigSection root = new ConfigSection(new RootSection());
+    private final DataScriptEmitter emitter = new DataScriptEmitter();
+    private final AtomicReference<CompletableFuture<Void>> queuedWrite = new AtomicReference<>();
+
+    private volatile CompletableFuture<Void> lastWrite;
+    private volatile Stamp written;
+    private volatile long writtenHash;
+    private volatile long loads;
+    private volatile ConfigSection applied;
+    private volatile Thread applying;
 
     /**
      * Constructs a new DataScriptConfiguration with the provided file.
@@ -25,7 +60,39 @@ public class DataScriptConfiguration implements Configuration {
      * @param file The file where configuration data is stored.
      */
     public DataScriptConfiguration(final @NotNull File file) {
-        this.file = file;
+        this(new Builder().file(file));
+    }
+
+    /**
+     * Constructs a new DataScriptConfiguration from the options of a builder.
+     *
+     * @param builder The builder holding the options.
+     */
+    private DataScriptConfiguration(final @NotNull Builder builder) {
+        this.file = builder.file;
+        this.format = builder.format;
+        this.memoryMapped = builder.memoryMapped;
+        this.lazy = builder.lazy;
+        this.parallel = builder.parallel;
+        this.parallelThreshold = builder.parallelThreshold;
+        this.atomicWrites = builder.atomicWrites;
+        this.fsync = builder.fsync;
+        this.writeBehind = builder.writeBehind;
+        this.skipUnchanged = builder.skipUnchanged;
+        this.journal = builder.journal ? new Journal(file) : null;
+        this.journalThreshold = builder.journalThreshold;
+        this.executor = builder.executor == null ? new SerialExecutor() : builder.executor;
+        this.asyncExecutor = builder.executor == null ? AsyncOperations.VIRTUAL_THREADS : builder.executor;
+        this.reloadDelay = builder.reloadDelay;
+
+        try {
+            this.watcher = builder.hotReload ? new FileWatcher(file.toPath(), this::changed) : null;
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        // Recorded as changes are applied rather than through a listener, so the journal keeps their order.
+        if (journal != null && root.section().nodes() instanceof NodeSet set) set.recorder(this::record);
     }
 
     /**
@@ -50,21 +117,33 @@ public class DataScriptConfiguration implements Configuration {
         return file;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The format is detected from the file itself, so a text file can be loaded by a configuration
+     * saving in {@link DataScriptFormat#BINARY} and the other way around.
+     * <p>
+     * The file is read into a separate tree first and then merged into the live one, changing only the nodes
+     * that differ, so readers never observe an empty configuration. Readers going through {@link #root()}
+     * may see the merge half done; {@link #snapshot()} returns either the previous or the new contents but
+     * never a mix of both. Unless {@link Builder#lazy(boolean) lazy}, the loaded tree is frozen before it is
+     * merged, and later snapshots share the frozen copies of the sections the merge moved to the live tree.
+     * <p>
+     * With {@link Builder#journal(boolean)} enabled, the changes journaled since the file was written are
+     * replayed on top of it.
+     */
     @Override
     public void loadFromDisk() {
         if (!file.exists()) return;
 
-        try (final BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
-            clear();
+        try {
+            final Stamp stamp = skipUnchanged && !lazy && journal == null ? Stamp.of(file) : null;
+            final RootSection loaded = read();
+            if (journal != null) journal.replay(loaded);
+            apply(loaded);
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                final ConfigNode node = parseNode(line, reader, 0);
-                if (node != null) root.section().nodes().add(node);
-            }
+            // The file now holds what the tree holds, so saving it unchanged can be skipped too.
+            if (stamp != null) matched(stamp, new ConfigSection(loaded).contentHash());
         } catch (final IOException e) {
             throw new RuntimeException(e);
         }
@@ -72,357 +151,583 @@ public class DataScriptConfiguration implements Configuration {
 
     @Override
     public void loadFromString(@NotNull String configString) {
-        try (final BufferedReader reader = new BufferedReader(new StringReader(configString))) {
-            clear();
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                final ConfigNode node = parseNode(line, reader, 0);
-                if (node != null) root.section().nodes().add(node);
+        try {
+            final LoadEvent event = new LoadEvent();
+            event.begin();
+
+            final long start = System.nanoTime();
+            final RootSection loaded = new RootSection();
+
+            if (lazy) {
+                final char[] chars = configString.toCharArray();
+                LazySectionNode.text(chars, 0, chars.length, loaded);
+            } else if (parallel && configString.length() >= parallelThreshold) {
+                ParallelParser.parse(configString.toCharArray(), loaded);
+            } else {
+                try (final DataScriptReader reader = new DataScriptReader(new StringReader(configString))) {
+                    reader.accept(new DataScriptTreeBuilder(loaded));
+                }
             }
+
+            parsed(event, start, DataScriptFormat.TEXT, configString.length(), loaded);
+            apply(loaded);
+            if (journal != null) journal.invalidate();
         } catch (final IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * While a load is being applied, this returns the frozen copy of the loaded contents taken before
+     * merging them, rather than copying the partially updated tree. With {@link Builder#lazy(boolean)}
+     * enabled no copy is taken, since it would load every section, and this waits for the merge instead.
+     */
+    @NotNull
     @Override
-    public void saveToDisk() {
-        if (!file.exists()) try {
-            assert file.createNewFile();
-        } catch (final IOException e) {
-            throw new RuntimeException(e);
-        }
+    public ConfigSection snapshot() {
+        while (true) {
+            final long loads = this.loads;
+
+            // The count is odd while a load is applied.
+            if ((loads & 1) != 0) {
+                final ConfigSection applied = this.applied;
+                if (applied != null && this.loads == loads) return applied;
+
+                // The merge holds the emitter lock, wait for it rather than spinning.
+                synchronized (emitter) {
+                    // Only taken to wait for the merge to finish.
+                }
 
-        try (final BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
-            for (final ConfigNode node : root.nodes()) writeNode(writer, node, 0);
-        } catch (final IOException e) {
-            throw new RuntimeException(e);
+                continue;
+            }
+
+            // A load that started while copying may have left the copy half-applied, take it again.
+            final ConfigSection snapshot = root.snapshot();
+            if (this.loads == loads) return snapshot;
         }
     }
 
-    @Override
-    public @NotNull String saveToString() {
-        StringWriter stringWriter = new StringWriter();
-        try (final BufferedWriter writer = new BufferedWriter(stringWriter)) {
-            for (final ConfigNode node : root.nodes()) writeNode(writer, node, 0);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /**
+     * Reads the file into a new tree.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    private RootSection read() throws IOException {
+        final LoadEvent event = new LoadEvent();
+        event.begin();
+
+        final long start = System.nanoTime();
+        final RootSection loaded = new RootSection();
+        final DataScriptFormat format = read(loaded);
+
+        parsed(event, start, format, file.length(), loaded);
+        return loaded;
+    }
+
+    /**
+     * Reads the file into the given tree.
+     *
+     * @return The format of the file.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    private DataScriptFormat read(final @NotNull RootSection loaded) throws IOException {
+        if (DataScriptBinary.isBinary(file)) {
+            read(DataScriptBinary.bytes(file, memoryMapped), loaded);
+            return DataScriptFormat.BINARY;
+        }
+
+        if (lazy || (parallel && file.length() >= parallelThreshold)) {
+            final char[] chars;
+            try (final Reader reader = memoryMapped ? MappedFileReader.open(file) : Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                chars = chars(reader, file.length());
+            }
+
+            if (lazy) LazySectionNode.text(chars, 0, chars.length, loaded);
+            else ParallelParser.parse(chars, loaded);
+            return DataScriptFormat.TEXT;
+        }
+
+        try (final DataScriptReader reader = memoryMapped ? DataScriptReader.map(file) : DataScriptReader.open(file)) {
+            reader.accept(new DataScriptTreeBuilder(loaded));
         }
-        return stringWriter.toString();
+
+        return DataScriptFormat.TEXT;
     }
 
-    @Nullable
     @ApiStatus.Internal
-    private ConfigNode parseNode(@NotNull String line, final @NotNull BufferedReader reader, final int depth) throws IOException {
-        final String indent = "  ".repeat(depth);
-        if (!line.startsWith(indent)) return null;
+    private void read(final @NotNull ByteBuffer bytes, final @NotNull RootSection loaded) throws IOException {
+        if (lazy) DataScriptBinary.readLazily(bytes, loaded);
+        else DataScriptBinary.read(bytes, new DataScriptTreeBuilder(loaded));
+    }
 
-        line = line.substring(indent.length());
+    /**
+     * Reports a parsed tree to the installed metrics and commits its load event. The tree is only
+     * counted when either of them is listening.
+     */
+    @ApiStatus.Internal
+    private void parsed(final @NotNull LoadEvent event, final long start, final @NotNull DataScriptFormat format, final long size, final @NotNull SectionNode loaded) {
+        final long nanos = System.nanoTime() - start;
+        event.end();
+
+        final ConfigMetrics metrics = ConfigMetrics.installed();
+        final boolean commit = event.shouldCommit();
+        if (metrics == ConfigMetrics.NOOP && !commit) return;
+
+        final int[] counts = new int[2];
+        count(loaded, counts);
+        metrics.parsed(file, nanos, size, counts[0], counts[1]);
+
+        if (commit) {
+            event.file = file.getPath();
+            event.format = format.name();
+            event.size = size;
+            event.nodes = counts[0];
+            event.sections = counts[1];
+            event.commit();
+        }
+    }
 
-        final String[] parts = line.split("=", 2);
-        final String name = parts[0].trim();
+    /**
+     * Reports a serialization to the installed metrics and commits its save event.
+     */
+    @ApiStatus.Internal
+    private void serialized(final @NotNull SaveEvent event, final long start, final @NotNull DataScriptFormat format, final long size) {
+        final long nanos = System.nanoTime() - start;
+        event.end();
 
-        final String key = name
-            .replaceAll("\\{", "")
-            .replaceAll("}", "")
-            .trim();
+        ConfigMetrics.installed().serialized(file, nanos, size);
 
-        if (parts.length == 1) {
-            if (line.endsWith("{")) {
-                final SectionNode section = new SectionNode() {
-                    private final Set<ConfigNode> nodes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        if (event.shouldCommit()) {
+            event.file = file.getPath();
+            event.format = format.name();
+            event.size = size;
+            event.commit();
+        }
+    }
 
-                    @NotNull
-                    @Override
-                    public Set<ConfigNode> nodes() {
-                        return nodes;
-                    }
+    /**
+     * Counts the nodes and sections below a section, without loading lazy sections.
+     *
+     * @param counts Receives the number of nodes at index 0 and of sections at index 1.
+     */
+    @ApiStatus.Internal
+    private static void count(final @NotNull SectionNode section, final int @NotNull [] counts) {
+        for (final ConfigNode node : section.nodes()) {
+            counts[0]++;
+            if (!(node instanceof SectionNode child)) continue;
 
-                    @NotNull
-                    @Override
-                    public String name() {
-                        return key;
-                    }
-                };
+            counts[1]++;
+            if (!(child instanceof LazySectionNode lazy) || lazy.loaded()) count(child, counts);
+        }
+    }
 
-                String childLine;
-                while ((childLine = reader.readLine()) != null && !childLine.trim().equals("}")) {
-                    final ConfigNode childNode = parseNode(childLine, reader, depth + 1);
-                    if (childNode != null) {
-                        section.nodes().add(childNode);
-                    }
+    /**
+     * Applies a loaded tree to the live one, changing only the nodes that differ. The load count acts as a
+     * sequence lock: it is odd while the tree is merged, so {@link #snapshot()} never copies a half-applied load.
+     * The frozen copy of the loaded tree is published before the count turns odd, for snapshots to return meanwhile.
+     * <p>
+     * Listeners are told about the merged changes once the count is even again, so a listener taking a
+     * snapshot sees the whole load. The changes made by applying are not journaled, and changes recorded
+     * before are dropped since the loaded tree replaces them.
+     */
+    @ApiStatus.Internal
+    private void apply(final @NotNull RootSection loaded) {
+        // Freezing a lazy tree would load every section, snapshots wait for the merge instead.
+        final ConfigSection frozen = lazy ? null : new ConfigSection(loaded).snapshot();
+        final List<Runnable> events = NodeSet.hold();
+
+        try {
+            synchronized (emitter) {
+                applied = frozen;
+                loads++;
+                applying = Thread.currentThread();
+
+                try {
+                    if (journal != null) journal.drain();
+                    TreeMerge.apply(root.section(), loaded);
+                } finally {
+                    applying = null;
+                    loads++;
+                    applied = null;
                 }
+            }
+        } finally {
+            NodeSet.release(events);
+        }
+    }
 
-                return section;
-            } else if (line.endsWith("{}")) {
-                return new SectionNode() {
-                    private final Set<ConfigNode> nodes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    /**
+     * Records a change of the live tree in the journal. Called as the change is applied, while the locks
+     * of its section are held, so two changes of the same key are journaled in the order they were applied.
+     */
+    @ApiStatus.Internal
+    private void record(final @NotNull ConfigChange change) {
+        if (applying == Thread.currentThread()) return;
 
-                    @NotNull
-                    @Override
-                    public Set<ConfigNode> nodes() {
-                        return nodes;
-                    }
+        final List<String> path = change.path();
+        final Object current = change.current();
 
-                    @NotNull
-                    @Override
-                    public String name() {
-                        return key;
-                    }
-                };
-            }
+        final ConfigNode node;
+        if (current == null) node = null;
+        else if (current instanceof ConfigSection section) node = section.section();
+        else node = ScalarNode.of(change.key(), current);
+
+        journal.record(path.subList(0, path.size() - 1), change.key(), node);
+    }
+
+    /**
+     * Reads the whole reader into an array. UTF-8 never decodes to more chars than it has bytes,
+     * so the size of the file is enough capacity unless it grows while being read.
+     */
+    @ApiStatus.Internal
+    private static char @NotNull [] chars(final @NotNull Reader reader, final long size) throws IOException {
+        char[] chars = new char[(int) Math.min(size, Integer.MAX_VALUE - 8)];
+        int length = 0;
+
+        while (true) {
+            if (length == chars.length) chars = Arrays.copyOf(chars, Math.max(8192, length << 1));
+
+            final int read = reader.read(chars, length, chars.length - length);
+            if (read < 0) break;
 
-            return null;
+            length += read;
         }
 
-        final String value = parts[1].trim();
+        return length == chars.length ? chars : Arrays.copyOf(chars, length);
+    }
 
-        if (value.equalsIgnoreCase("true")) {
-            return new ScalarNode<>(true) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else if (value.equalsIgnoreCase("false")) {
-            return new ScalarNode<>(false) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
+    /**
+     * {@inheritDoc}
+     * <p>
+     * With write-behind enabled this only queues a background write and returns immediately. Saves
+     * requested before the queued write starts are folded into it, so a burst of saves costs a single write.
+     * Use {@link #flush()} to wait for queued writes.
+     */
+    @Override
+    public void saveToDisk() {
+        if (!writeBehind) {
+            write();
+            return;
         }
 
-        if (value.startsWith("uuid('") && value.endsWith("')")) {
-            return new ScalarNode<>(UUID.fromString(value.replaceAll("uuid\\('", "").replaceAll("'\\)", ""))) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
+        final CompletableFuture<Void> write = new CompletableFuture<>();
+        if (!queuedWrite.compareAndSet(null, write)) return;
+
+        executor.execute(() -> {
+            queuedWrite.compareAndSet(write, null);
+            lastWrite = write;
+
+            try {
+                write();
+                write.complete(null);
+            } catch (final Throwable throwable) {
+                write.completeExceptionally(throwable);
+                throw throwable;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Runs on the executor set through {@link Builder#executor(Executor)}, or on a virtual thread.
+     */
+    @NotNull
+    @Override
+    public CompletableFuture<Void> loadAsync() {
+        return loadAsync(asyncExecutor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Runs on the executor set through {@link Builder#executor(Executor)}, or on a virtual thread.
+     */
+    @NotNull
+    @Override
+    public CompletableFuture<Void> saveAsync() {
+        return saveAsync(asyncExecutor);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The file is written by the save itself even with write-behind enabled, so the future completes
+     * once it is on disk.
+     */
+    @NotNull
+    @Override
+    public CompletableFuture<Void> saveAsync(final @NotNull Executor executor) {
+        return AsyncOperations.request(this, true, this::write, executor);
+    }
+
+    /**
+     * Waits until every write queued by {@link #saveToDisk()} in write-behind mode has completed.
+     * Returns immediately when write-behind is disabled.
+     *
+     * @throws RuntimeException if a queued write failed.
+     */
+    public void flush() {
+        final CompletableFuture<Void> last = lastWrite;
+        if (last != null) last.join();
+
+        final CompletableFuture<Void> queued = queuedWrite.get();
+        if (queued != null) queued.join();
+    }
+
+    @ApiStatus.Internal
+    private void write() {
+        if (journal != null) {
+            appendJournal();
+            return;
         }
 
-        if (value.startsWith("'") && value.endsWith("'") || value.startsWith("\"") && value.endsWith("\"")) {
-            return new ScalarNode<>(value.substring(1, value.length() - 1)) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else if (value.matches("\\d+")) {
-            return new ScalarNode<>(Integer.parseInt(value)) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else if (value.matches("\\d+L")) {
-            return new ScalarNode<>(Long.parseLong(value.substring(0, value.length() - 1))) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else if (value.matches("\\d+\\.\\d+D")) {
-            return new ScalarNode<>(Double.parseDouble(value.substring(0, value.length() - 1))) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else if (value.matches("'.'C")) {
-            return new ScalarNode<>(value.charAt(1)) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else if (value.matches("\\d+S")) {
-            return new ScalarNode<>(Short.parseShort(value.substring(0, value.length() - 1))) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else if (value.matches("\\d+B")) {
-            return new ScalarNode<>(Byte.parseByte(value.substring(0, value.length() - 1))) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else if (value.startsWith("[")) {
-            // Handle list parsing
-            final List<Object> list = new ArrayList<>();
-            final StringBuilder listContent = new StringBuilder(value);
-
-            // Read until we find the closing bracket
-            while (!listContent.toString().trim().endsWith("]")) {
-                String nextLine = reader.readLine();
-                if (nextLine != null) {
-                    listContent.append(nextLine.trim());
-                }
+        synchronized (emitter) {
+            try {
+                final long hash = skipUnchanged ? root.contentHash() : 0;
+                if (skipUnchanged && written != null && hash == writtenHash && file.exists() && Stamp.of(file).equals(written)) return;
+
+                final SaveEvent event = new SaveEvent();
+                event.begin();
+
+                final long start = System.nanoTime();
+                FileWrites.write(file, atomicWrites, fsync, out -> {
+                    if (format == DataScriptFormat.BINARY) {
+                        DataScriptBinary.write(root.section(), out);
+                        return;
+                    }
+
+                    final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                    emitter.emit(root.section(), writer);
+                    writer.flush();
+                });
+
+                serialized(event, start, format, file.length());
+
+                if (watcher != null || skipUnchanged) written = Stamp.of(file);
+                writtenHash = hash;
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
             }
+        }
+    }
 
-            // Remove the surrounding brackets
-            final String content = listContent.substring(1, listContent.length() - 1).trim();
-
-            // Split the content by commas and parse individual elements
-            final String[] elements = content.split(",");
-
-            for (String element : elements) {
-                element = element.trim();
-
-                if (element.startsWith("uuid('") && element.endsWith("')")) {
-                    list.add(UUID.fromString(element.replaceAll("uuid\\('", "").replaceAll("'\\)", "")));
-                } else if (element.matches("\\d+")) {
-                    list.add(Integer.parseInt(element));
-                } else if (element.matches("\\d+L")) {
-                    list.add(Long.parseLong(element.substring(0, element.length() - 1)));
-                } else if (element.matches("\\d+\\.\\d+D")) {
-                    list.add(Double.parseDouble(element.substring(0, element.length() - 1)));
-                } else if (element.matches("'.'C")) {
-                    list.add(element.charAt(1));
-                } else if (element.matches("\\d+S")) {
-                    list.add(Short.parseShort(element.substring(0, element.length() - 1)));
-                } else if (element.startsWith("'") && element.endsWith("'") || element.startsWith("\"") && element.endsWith("\"")) {
-                    list.add(element.substring(1, element.length() - 1));
-                } else {
-                    list.add(element);
-                }
+    /**
+     * Appends the changes recorded since the last save to the journal, and compacts the journal in the
+     * background once it outgrew the threshold. Without a journal belonging to the file, such as on the
+     * first save or after loading other contents, the file is written in full instead.
+     */
+    @ApiStatus.Internal
+    private void appendJournal() {
+        synchronized (emitter) {
+            if (!journal.valid() || !file.exists()) {
+                compact();
+                return;
             }
 
-            return new ScalarNode<>(Collections.synchronizedList(list)) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
-                }
-            };
-        } else {
-            return new ScalarNode<>(value) {
-                @NotNull
-                @Override
-                public String name() {
-                    return key;
+            try {
+                final SaveEvent event = new SaveEvent();
+                event.begin();
+
+                final long start = System.nanoTime();
+                final int appended = journal.append(fsync);
+                if (appended > 0) serialized(event, start, DataScriptFormat.BINARY, appended);
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            if (journal.size() > journalThreshold) executor.execute(() -> {
+                synchronized (emitter) {
+                    if (journal.size() > journalThreshold) compact();
                 }
-            };
+            });
         }
     }
 
+    /**
+     * Writes the whole tree to the file and starts a new journal for it. Changes recorded before the
+     * tree is written are part of it and are dropped, those recorded while it is written are appended
+     * by the next save, which replays them onto contents that may already hold them.
+     * Must be called while holding the emitter lock.
+     */
     @ApiStatus.Internal
-    private void writeNode(final @NotNull BufferedWriter writer, final @NotNull ConfigNode node, final int depth) throws IOException {
-        if (depth < 0) throw new IllegalArgumentException();
+    private void compact() {
+        try {
+            journal.drain();
 
-        final String indent = "  ".repeat(depth);
-        final String name = node.name();
+            final SaveEvent event = new SaveEvent();
+            event.begin();
 
-        if (node instanceof ScalarNode<?> scalar) {
-            final Object value = scalar.value();
+            final long start = System.nanoTime();
+            final CRC32C crc = new CRC32C();
+            final long[] length = new long[1];
 
-            switch (value) {
-                case Boolean bool -> {
-                    writer.write(indent + node.name() + " = " + bool);
-                    writer.newLine();
-                }
-                case String string -> {
-                    writer.write(indent + node.name() + " = '" + string + "'");
-                    writer.newLine();
-                }
-                case Byte _byte -> {
-                    writer.write(indent + node.name() + " = " + _byte + "B");
-                    writer.newLine();
-                }
-                case Integer integer -> {
-                    writer.write(indent + node.name() + " = " + integer);
-                    writer.newLine();
-                }
-                case Long _long -> {
-                    writer.write(indent + node.name() + " = " + _long + "L");
-                    writer.newLine();
-                }
-                case Double _double -> {
-                    writer.write(indent + node.name() + " = " + _double + "D");
-                    writer.newLine();
-                }
-                case Character character -> {
-                    writer.write(indent + node.name() + " = '" + character + "'C");
-                    writer.newLine();
-                }
-                case Short _short -> {
-                    writer.write(indent + node.name() + " = " + _short + "S");
-                    writer.newLine();
-                }
-                case List<?> list -> {
-                    writer.write(indent + node.name() + " = [");
-
-                    for (int i = 0; i < list.size(); i++) {
-                        final Object element = list.get(i);
-
-                        writer.newLine();
-
-                        switch (element) {
-                            case Boolean bool -> writer.write(indent + "  " + bool);
-                            case String string -> writer.write(indent + "  '" + string + "'");
-                            case Integer integer -> writer.write(indent + "  " + integer);
-                            case Long _long -> writer.write(indent + "  " + _long + "L");
-                            case Double _double -> writer.write(indent + "  " + _double + "D");
-                            case Character character -> writer.write(indent + "  " + character + "'C");
-                            case Short _short -> writer.write(indent + "  " + _short + "S");
-                            case UUID uuid -> writer.write(indent + " uuid('" + uuid + "')");
-                            case null, default -> writer.write(indent + "  " + value);
-                        }
-
-                        if (i != list.size() - 1) {
-                            writer.append(",");
-                            writer.newLine();
-                            continue;
-                        }
-
-                        writer.newLine();
-                        break;
+            FileWrites.write(file, atomicWrites, fsync, target -> {
+                final OutputStream out = new CheckedOutputStream(target, crc) {
+                    @Override
+                    public void write(final int b) throws IOException {
+                        super.write(b);
+                        length[0]++;
                     }
 
-                    writer.write(indent + "]");
-                    writer.newLine();
-                }
-                case UUID uuid -> {
-                    writer.write(indent + node.name() + " = uuid('" + uuid + "')");
-                    writer.newLine();
-                }
-                default -> {
-                    writer.write(indent + node.name() + " = " + value);
-                    writer.newLine();
+                    @Override
+                    public void write(final byte @NotNull [] b, final int off, final int len) throws IOException {
+                        super.write(b, off, len);
+                        length[0] += len;
+                    }
+                };
+
+                if (format == DataScriptFormat.BINARY) {
+                    DataScriptBinary.write(root.section(), out);
+                    return;
                 }
-            }
+
+                final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                emitter.emit(root.section(), writer);
+                writer.flush();
+            });
+
+            serialized(event, start, format, length[0]);
+            journal.reset(length[0], (int) crc.getValue(), fsync);
+
+            if (watcher != null) written = Stamp.of(file);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
         }
+    }
 
-        if (node instanceof SectionNode section) {
-            if (section.nodes().isEmpty()) {
-                writer.write(indent + name + " {}" + "\n");
-                return;
-            }
+    /**
+     * Records that the file, as identified by its stamp, holds a tree with the given content hash.
+     */
+    @ApiStatus.Internal
+    private void matched(final @NotNull Stamp stamp, final long hash) {
+        synchronized (emitter) {
+            written = stamp;
+            writtenHash = hash;
+        }
+    }
 
-            writer.write(indent + name + " {" + "\n");
+    /**
+     * Stops watching the file for changes. Does nothing unless hot reload is enabled.
+     */
+    @Override
+    public void close() {
+        if (watcher == null) return;
 
-            for (final ConfigNode child : section.nodes()) {
-                writeNode(writer, child, depth + 1);
-            }
+        try {
+            watcher.close();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Debounces file change events: a reload runs once no further change was reported for the reload delay.
+     */
+    @ApiStatus.Internal
+    private void changed() {
+        final long change = changes.incrementAndGet();
+
+        CompletableFuture.delayedExecutor(reloadDelay.toNanos(), TimeUnit.NANOSECONDS, executor).execute(() -> {
+            if (changes.get() == change) reload();
+        });
+    }
+
+    /**
+     * Loads the file into a separate tree and applies only what differs to the live tree.
+     * Files left exactly as the last {@link #saveToDisk()} wrote them are skipped.
+     * <p>
+     * A file that cannot be read, such as one still being written, is reported to the uncaught exception
+     * handler of the current thread and leaves the live tree as it is, until the next change reloads it again.
+     */
+    @ApiStatus.Internal
+    private void reload() {
+        if (!file.exists()) return;
+
+        try {
+            if (Stamp.of(file).equals(written)) return;
+
+            final RootSection loaded = read();
+            if (journal != null) journal.replay(loaded);
+            apply(loaded);
+        } catch (final IOException | RuntimeException e) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    @Override
+    public @NotNull String saveToString() {
+        synchronized (emitter) {
+            final SaveEvent event = new SaveEvent();
+            event.begin();
+
+            final long start = System.nanoTime();
+            final String saved = emitter.emit(root.section());
+
+            serialized(event, start, DataScriptFormat.TEXT, saved.length());
+            return saved;
+        }
+    }
+
+    /**
+     * Loads configuration data encoded in the binary format.
+     *
+     * @param bytes The encoded configuration data.
+     */
+    public void loadFromBytes(final byte @NotNull [] bytes) {
+        try {
+            final LoadEvent event = new LoadEvent();
+            event.begin();
+
+            final long start = System.nanoTime();
+            final RootSection loaded = new RootSection();
+            read(ByteBuffer.wrap(lazy ? bytes.clone() : bytes), loaded);
+
+            parsed(event, start, DataScriptFormat.BINARY, bytes.length, loaded);
+            apply(loaded);
+            if (journal != null) journal.invalidate();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Saves the current configuration data in the binary format.
+     *
+     * @return The encoded configuration data.
+     */
+    public byte @NotNull [] saveToBytes() {
+        try {
+            final SaveEvent event = new SaveEvent();
+            event.begin();
+
+            final long start = System.nanoTime();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DataScriptBinary.write(root.section(), out);
 
-            writer.write(indent + "}" + "\n");
+            serialized(event, start, DataScriptFormat.BINARY, out.size());
+            return out.toByteArray();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Identifies a version of the file by its modification time and size.
+     *
+     * @param modified The last modification time.
+     * @param size The size in bytes.
+     */
+    @ApiStatus.Internal
+    private record Stamp(@NotNull FileTime modified, long size) {
+        @NotNull
+        static Stamp of(final @NotNull File file) throws IOException {
+            final BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            return new Stamp(attributes.lastModifiedTime(), attributes.size());
         }
     }
 
@@ -431,6 +736,20 @@ public class DataScriptConfiguration implements Configuration {
      */
     public static class Builder {
         private File file;
+        private DataScriptFormat format = DataScriptFormat.TEXT;
+        private boolean memoryMapped;
+        private boolean lazy;
+        private boolean parallel;
+        private long parallelThreshold = 8L << 20;
+        private boolean atomicWrites;
+        private boolean fsync;
+        private boolean writeBehind;
+        private boolean skipUnchanged;
+        private boolean journal;
+        private long journalThreshold = 1L << 20;
+        private Executor executor;
+        private boolean hotReload;
+        private Duration reloadDelay = Duration.ofMillis(250);
 
         /**
          * Sets the file for the configuration.
@@ -444,16 +763,226 @@ public class DataScriptConfiguration implements Configuration {
             return this;
         }
 
+        /**
+         * Sets the format {@link #saveToDisk()} writes. Loading detects the format of the file,
+         * so switching formats only requires loading and saving once. Defaults to {@link DataScriptFormat#TEXT}.
+         *
+         * @param format The format to save in.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder format(final @NotNull DataScriptFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        /**
+         * Sets whether {@link #loadFromDisk()} memory-maps the file instead of reading it through a stream.
+         * This is mostly useful for very large files. Defaults to false.
+         *
+         * @param memoryMapped Whether to memory-map the file when loading.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder memoryMapped(final boolean memoryMapped) {
+            this.memoryMapped = memoryMapped;
+            return this;
+        }
+
+        /**
+         * Sets whether loading only records where each section starts and ends, parsing a section when it
+         * is first accessed. Startup then depends on how much of the document is read instead of its size,
+         * at the cost of keeping the source in memory until every section was accessed. Taking a
+         * {@link DataScriptConfiguration#snapshot() snapshot} loads every section, and snapshots taken while a
+         * load is applied wait for it instead of returning a frozen copy of the loaded tree. Defaults to false.
+         *
+         * @param lazy Whether to parse sections on first access.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder lazy(final boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        /**
+         * Sets whether large text documents are parsed on several threads, one top-level section per task.
+         * This pays off for documents with many top-level sections, at the cost of holding the whole document
+         * in memory while it is parsed. Lazy loading takes precedence. Defaults to false.
+         *
+         * @param parallel Whether to parse large documents in parallel.
+         * @return This builder instance.
+         * @see #parallelThreshold(long)
+         */
+        @NotNull
+        public Builder parallel(final boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        /**
+         * Sets the size from which documents are parsed in parallel when {@link #parallel(boolean)} is enabled.
+         * Smaller documents are parsed on the calling thread. Defaults to 8 MiB.
+         *
+         * @param parallelThreshold The minimum size in bytes, or in characters for strings.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder parallelThreshold(final long parallelThreshold) {
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+
+        /**
+         * Sets whether {@link #saveToDisk()} writes to a temporary file in the same directory and then
+         * atomically renames it over the configuration file, so a crash mid-write never leaves a
+         * half-written file behind. Defaults to false.
+         *
+         * @param atomicWrites Whether to replace the file atomically.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder atomicWrites(final boolean atomicWrites) {
+            this.atomicWrites = atomicWrites;
+            return this;
+        }
+
+        /**
+         * Sets whether {@link #saveToDisk()} forces the written data to the storage device before
+         * completing. Defaults to false.
+         *
+         * @param fsync Whether to fsync written files.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder fsync(final boolean fsync) {
+            this.fsync = fsync;
+            return this;
+        }
+
+        /**
+         * Sets whether {@link #saveToDisk()} returns immediately and writes in the background, folding
+         * saves requested while a write is pending into that write. Defaults to false.
+         *
+         * @param writeBehind Whether to write in the background.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder writeBehind(final boolean writeBehind) {
+            this.writeBehind = writeBehind;
+            return this;
+        }
+
+        /**
+         * Sets whether {@link #saveToDisk()} skips writing when the contents are the same as those it last
+         * wrote or loaded and the file was not modified since. The contents are compared through
+         * {@link ConfigSection#contentHash()}, which only rehashes the sections that changed, along with
+         * the sections holding lists since those can be modified in place. Lazy sections are loaded on the
+         * first save. Defaults to false.
+         *
+         * @param skipUnchanged Whether to skip writing unchanged contents.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder skipUnchangedSaves(final boolean skipUnchanged) {
+            this.skipUnchanged = skipUnchanged;
+            return this;
+        }
+
+        /**
+         * Sets whether {@link #saveToDisk()} appends the changes made since the last save to a journal next
+         * to the file, named after it with a {@code .journal} suffix, instead of rewriting the whole file.
+         * Every set, unset or rename of a node becomes a record of a few bytes plus the encoded node, and
+         * {@link #loadFromDisk()} replays the journal on top of the file. Once the journal outgrows
+         * {@link #journalThreshold(long)}, it is folded into the file in the background.
+         * <p>
+         * Only changes made through nodes are journaled: a list mutated in place must be set again to be saved.
+         * Changes are recorded as they are made, so journaling a large section that was just added costs as
+         * much as encoding it. Unchanged saves write nothing, so {@link #skipUnchangedSaves(boolean)} is
+         * not needed. Defaults to false.
+         *
+         * @param journal Whether to journal changes.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder journal(final boolean journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        /**
+         * Sets the size from which the journal is folded into the file when {@link #journal(boolean)} is enabled.
+         * Defaults to 1 MiB.
+         *
+         * @param journalThreshold The maximum size of the journal in bytes.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder journalThreshold(final long journalThreshold) {
+            this.journalThreshold = journalThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the executor running background work such as write-behind saves, hot reloads, journal compactions,
+         * {@link DataScriptConfiguration#loadAsync()} and {@link DataScriptConfiguration#saveAsync()}.
+         * Defaults to a serial executor of this configuration's own, running its background work in order on virtual threads
+         * so a slow write of one file never delays another configuration, and to a virtual thread per operation for
+         * asynchronous loads and saves.
+         * <p>
+         * Sharing a single-threaded executor between configurations makes their writes, reloads and journal compactions
+         * wait for each other.
+         *
+         * @param executor The executor.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder executor(final @NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets whether the file is watched for changes made outside of this configuration, such as edits by hand.
+         * A change reloads the file on the background executor and applies only the nodes that differ to the
+         * live tree, so unchanged sections and scalars stay the same objects. Writes made by {@link #saveToDisk()}
+         * are ignored. A file that fails to load, such as one caught halfway through being written, is reported to
+         * the uncaught exception handler of the executor's thread and keeps the current contents until the next
+         * change. Call {@link #close()} to stop watching. Defaults to false.
+         *
+         * @param hotReload Whether to reload the file when it changes.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder hotReload(final boolean hotReload) {
+            this.hotReload = hotReload;
+            return this;
+        }
+
+        /**
+         * Sets how long the file must stay unchanged before a hot reload runs, so an editor writing in
+         * several steps causes a single reload. Defaults to 250 milliseconds.
+         *
+         * @param reloadDelay The delay.
+         * @return This builder instance.
+         */
+        @NotNull
+        public Builder reloadDelay(final @NotNull Duration reloadDelay) {
+            this.reloadDelay = reloadDelay;
+            return this;
+        }
+
         /**
          * Builds and returns a new {@link DataScriptConfiguration}.
          *
          * @return A new configuration instance.
          * @throws NullPointerException if the file is not set.
+         * @throws RuntimeException if hot reload is enabled and the file cannot be watched.
          */
         @NotNull
         public DataScriptConfiguration build() {
             if (file == null) throw new NullPointerException();
-            return new DataScriptConfiguration(file);
+            return new DataScriptConfiguration(this);
         }
     }
 }
@@ -0,0 +1,488 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.*;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serializes a node tree into the DataScript text format.
+ * <p>
+ * Output is written straight into a reusable char buffer: indentation is copied from a shared
+ * prefix, numbers and UUIDs are formatted in place and strings are copied without concatenation.
+ * When writing to a {@link Writer} the buffer is flushed in large chunks. Unchanged sections replay
+ * their cached output instead of being serialized again. An emitter is not thread-safe.
+ */
+@ApiStatus.Internal
+final class DataScriptEmitter {
+    private static final int INITIAL_CAPACITY = 8192;
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+
+    private static final char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder scratch = new StringBuilder(32);
+
+    private char[] buffer = new char[INITIAL_CAPACITY];
+    private char[] indentation = new char[64];
+    private int length;
+    private Writer sink;
+
+    private List<Object> parts;
+    private int runStart;
+
+    /**
+     * Constructs a new emitter.
+     */
+    DataScriptEmitter() {
+        Arrays.fill(indentation, ' ');
+    }
+
+    /**
+     * Serializes the children of the given section into a string. The buffer keeps its capacity for the
+     * next call, so repeated saves of a similarly sized tree do not grow it again.
+     *
+     * @param root The section whose children are written at the top level.
+     * @return The serialized text.
+     */
+    @NotNull
+    String emit(final @NotNull SectionNode root) {
+        try {
+            sink = null;
+            length = 0;
+
+            body(root, 0);
+            return new String(buffer, 0, length);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Serializes the children of the given section into a writer, flushing the buffer in large chunks.
+     *
+     * @param root The section whose children are written at the top level.
+     * @param sink The writer receiving the text.
+     * @throws IOException if the writer fails.
+     */
+    void emit(final @NotNull SectionNode root, final @NotNull Writer sink) throws IOException {
+        try {
+            this.sink = sink;
+            length = 0;
+
+            body(root, 0);
+            flush();
+        } finally {
+            this.sink = null;
+        }
+    }
+
+    @ApiStatus.Internal
+    private void node(final @NotNull ConfigNode node, final int depth) throws IOException {
+        if (depth < 0) throw new IllegalArgumentException();
+
+        if (node instanceof ScalarNode<?> scalar) scalar(node.name(), scalar.value(), depth);
+        if (node instanceof SectionNode section) section(section, depth);
+    }
+
+    @ApiStatus.Internal
+    private void section(final @NotNull SectionNode section, final int depth) throws IOException {
+        final List<Object> outer = parts;
+        parts = null;
+
+        indent(depth);
+        append(section.name());
+
+        if (section.nodes().isEmpty()) {
+            append(" {}\n");
+        } else {
+            append(" {\n");
+            body(section, depth + 1);
+
+            indent(depth);
+            append("}\n");
+        }
+
+        parts = outer;
+        runStart = length;
+    }
+
+    /**
+     * Writes the children of a section.
+     * <p>
+     * Sections backed by a {@link NodeSet} cache their output as a {@link Fragment}, valid as long as the
+     * set's version does not change. Lines of immutable scalars are stored as text, while lists and values
+     * of unknown types, which can change without the set noticing, are kept as nodes and written again
+     * on every save. Nested sections are referenced rather than copied, so each line is cached once.
+     */
+    @ApiStatus.Internal
+    private void body(final @NotNull SectionNode section, final int depth) throws IOException {
+        if (!(section.nodes() instanceof NodeSet set)) {
+            for (final ConfigNode child : section.nodes()) {
+                node(child, depth);
+                flushIfFull();
+            }
+
+            return;
+        }
+
+        final long version = set.version();
+
+        if (set.serialized() instanceof Fragment fragment && fragment.version() == version && fragment.depth() == depth) {
+            for (final Object part : fragment.parts()) {
+                switch (part) {
+                    case char[] text -> append(text);
+                    case ScalarNode<?> scalar -> scalar(scalar.name(), scalar.value(), depth);
+                    case SectionNode child -> section(child, depth);
+                    default -> throw new IllegalStateException();
+                }
+
+                flushIfFull();
+            }
+
+            return;
+        }
+
+        parts = new ArrayList<>();
+        runStart = length;
+
+        for (final ConfigNode child : set) {
+            if (child instanceof ScalarNode<?> scalar && immutable(scalar.value())) {
+                scalar(scalar.name(), scalar.value(), depth);
+            } else {
+                closeRun();
+                parts.add(child);
+                node(child, depth);
+                runStart = length;
+            }
+
+            flushIfFull();
+        }
+
+        closeRun();
+        set.serialized(new Fragment(version, depth, parts.toArray()));
+        parts = null;
+    }
+
+    @ApiStatus.Internal
+    private static boolean immutable(final @NotNull Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Character
+            || value instanceof Integer || value instanceof Long || value instanceof Double
+            || value instanceof Short || value instanceof Byte || value instanceof UUID;
+    }
+
+    @ApiStatus.Internal
+    private void closeRun() {
+        if (length > runStart) parts.add(Arrays.copyOfRange(buffer, runStart, length));
+        runStart = length;
+    }
+
+    @ApiStatus.Internal
+    private void flushIfFull() throws IOException {
+        if (sink == null || length < FLUSH_THRESHOLD) return;
+
+        if (parts != null) closeRun();
+        flush();
+        runStart = 0;
+    }
+
+    @ApiStatus.Internal
+    private void scalar(final @NotNull String name, final @NotNull Object value, final int depth) throws IOException {
+        indent(depth);
+        append(name);
+        append(" = ");
+
+        switch (value) {
+            case Boolean bool -> append(bool ? "true" : "false");
+            case String string -> {
+                append('\'');
+                append(string);
+                append('\'');
+            }
+            case Byte _byte -> {
+                append(_byte.intValue());
+                append('B');
+            }
+            case Integer integer -> append(integer.intValue());
+            case Long _long -> {
+                append(_long.longValue());
+                append('L');
+            }
+            case Double _double -> {
+                append(_double.doubleValue());
+                append('D');
+            }
+            case Character character -> {
+                append('\'');
+                append(character.charValue());
+                append("'C");
+            }
+            case Short _short -> {
+                append(_short.intValue());
+                append('S');
+            }
+            case List<?> list -> list(list, depth);
+            case UUID uuid -> {
+                append("uuid('");
+                append(uuid);
+                append("')");
+            }
+            default -> append(String.valueOf(value));
+        }
+
+        newLine();
+    }
+
+    /**
+     * Writes a list in the historical layout: each element on its own line, followed by a blank line
+     * when another element follows.
+     */
+    @ApiStatus.Internal
+    private void list(final @NotNull List<?> list, final int depth) throws IOException {
+        append('[');
+
+        if (list instanceof IntList || list instanceof LongList || list instanceof DoubleList || list instanceof ShortList) {
+            primitives(list, depth);
+            return;
+        }
+
+        for (int i = 0; i < list.size(); i++) {
+            newLine();
+
+            switch (list.get(i)) {
+                case Boolean bool -> {
+                    indent(depth + 1);
+                    append(bool ? "true" : "false");
+                }
+                case String string -> {
+                    indent(depth + 1);
+                    append('\'');
+                    append(string);
+                    append('\'');
+                }
+                case Integer integer -> {
+                    indent(depth + 1);
+                    append(integer.intValue());
+                }
+                case Long _long -> {
+                    indent(depth + 1);
+                    append(_long.longValue());
+                    append('L');
+                }
+                case Double _double -> {
+                    indent(depth + 1);
+                    append(_double.doubleValue());
+                    append('D');
+                }
+                case Character character -> {
+                    indent(depth + 1);
+                    append(character.charValue());
+                    append("'C");
+                }
+                case Short _short -> {
+                    indent(depth + 1);
+                    append(_short.intValue());
+                    append('S');
+                }
+                case UUID uuid -> {
+                    indent(depth);
+                    append(" uuid('");
+                    append(uuid);
+                    append("')");
+                }
+                case null, default -> {
+                    indent(depth + 1);
+                    append(String.valueOf(list));
+                }
+            }
+
+            if (i != list.size() - 1) append(',');
+            newLine();
+        }
+
+        indent(depth);
+        append(']');
+    }
+
+    /**
+     * Writes a primitive-backed list in the same layout as {@link #list(List, int)}, without boxing its elements.
+     */
+    @ApiStatus.Internal
+    private void primitives(final @NotNull List<?> list, final int depth) throws IOException {
+        // The list may be modified by other threads, so write a single version of it.
+        final Object array = switch (list) {
+            case IntList ints -> ints.toIntArray();
+            case LongList longs -> longs.toLongArray();
+            case DoubleList doubles -> doubles.toDoubleArray();
+            case ShortList shorts -> shorts.toShortArray();
+            default -> throw new IllegalStateException();
+        };
+        final int size = Array.getLength(array);
+
+        for (int i = 0; i < size; i++) {
+            newLine();
+            indent(depth + 1);
+
+            switch (array) {
+                case int[] ints -> append(ints[i]);
+                case long[] longs -> {
+                    append(longs[i]);
+                    append('L');
+                }
+                case double[] doubles -> {
+                    append(doubles[i]);
+                    append('D');
+                }
+                case short[] shorts -> {
+                    append(shorts[i]);
+                    append('S');
+                }
+                default -> throw new IllegalStateException();
+            }
+
+            if (i != size - 1) append(',');
+            newLine();
+        }
+
+        indent(depth);
+        append(']');
+    }
+
+    @ApiStatus.Internal
+    private void flush() throws IOException {
+        if (sink == null || length == 0) return;
+
+        sink.write(buffer, 0, length);
+        length = 0;
+    }
+
+    @ApiStatus.Internal
+    private void ensure(final int extra) {
+        final int required = length + extra;
+        if (required > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+    }
+
+    @ApiStatus.Internal
+    private void indent(final int depth) {
+        final int width = depth << 1;
+        if (width > indentation.length) {
+            indentation = new char[Math.max(width, indentation.length << 1)];
+            Arrays.fill(indentation, ' ');
+        }
+
+        ensure(width);
+        System.arraycopy(indentation, 0, buffer, length, width);
+        length += width;
+    }
+
+    @ApiStatus.Internal
+    private void newLine() {
+        ensure(LINE_SEPARATOR.length);
+        for (final char c : LINE_SEPARATOR) buffer[length++] = c;
+    }
+
+    @ApiStatus.Internal
+    private void append(final char c) {
+        ensure(1);
+        buffer[length++] = c;
+    }
+
+    @ApiStatus.Internal
+    private void append(final char @NotNull [] text) {
+        ensure(text.length);
+        System.arraycopy(text, 0, buffer, length, text.length);
+        length += text.length;
+    }
+
+    @ApiStatus.Internal
+    private void append(final @Nullable String string) {
+        final String text = string == null ? "null" : string;
+
+        ensure(text.length());
+        text.getChars(0, text.length(), buffer, length);
+        length += text.length();
+    }
+
+    @ApiStatus.Internal
+    private void append(final int value) {
+        append((long) value);
+    }
+
+    @ApiStatus.Internal
+    private void append(long value) {
+        if (value == Long.MIN_VALUE) {
+            append("-9223372036854775808");
+            return;
+        }
+
+        ensure(20);
+
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+        for (long remaining = value / 10; remaining != 0; remaining /= 10) digits++;
+
+        int position = length + digits;
+        length = position;
+
+        do {
+            buffer[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+    }
+
+    @ApiStatus.Internal
+    private void append(final double value) {
+        // StringBuilder formats doubles in place, copying out avoids an intermediate String.
+        scratch.setLength(0);
+        scratch.append(value);
+
+        ensure(scratch.length());
+        scratch.getChars(0, scratch.length(), buffer, length);
+        length += scratch.length();
+    }
+
+    @ApiStatus.Internal
+    private void append(final @NotNull UUID uuid) {
+        ensure(36);
+        hex(uuid.getMostSignificantBits() >>> 32, 8);
+        buffer[length++] = '-';
+        hex(uuid.getMostSignificantBits() >>> 16, 4);
+        buffer[length++] = '-';
+        hex(uuid.getMostSignificantBits(), 4);
+        buffer[length++] = '-';
+        hex(uuid.getLeastSignificantBits() >>> 48, 4);
+        buffer[length++] = '-';
+        hex(uuid.getLeastSignificantBits(), 12);
+    }
+
+    @ApiStatus.Internal
+    private void hex(long value, final int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[length + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+
+        length += digits;
+    }
+
+    /**
+     * Cached output of a section body.
+     *
+     * @param version The {@link NodeSet#version()} the output was produced from.
+     * @param depth   The depth the output was indented for.
+     * @param parts   Text runs, nodes to write again and nested sections, in output order.
+     */
+    private record Fragment(long version, int depth, Object @NotNull [] parts) {}
+}
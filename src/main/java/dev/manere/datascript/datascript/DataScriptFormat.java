@@ -0,0 +1,17 @@
+package dev.manere.datascript.datascript;
+
+/**
+ * On-disk formats supported by {@link DataScriptConfiguration}.
+ */
+public enum DataScriptFormat {
+    /**
+     * The human-readable text format.
+     */
+    TEXT,
+
+    /**
+     * The compact binary format, meant for machine-managed data. It stores the same node model as the
+     * text format with a deduplicated key table and length-prefixed sections.
+     */
+    BINARY
+}
@@ -0,0 +1,48 @@
+package dev.manere.datascript.datascript;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the events pushed by {@link DataScriptReader#accept(DataScriptHandler)}.
+ * Every method does nothing by default, so implementations only override what they need.
+ */
+public interface DataScriptHandler {
+    /**
+     * Called when a section is opened.
+     *
+     * @param name The name of the section.
+     */
+    default void startSection(final @NotNull String name) {}
+
+    /**
+     * Called when the innermost open section is closed.
+     */
+    default void endSection() {}
+
+    /**
+     * Called for every scalar.
+     *
+     * @param name  The name of the scalar.
+     * @param value The typed value.
+     */
+    default void scalar(final @NotNull String name, final @NotNull Object value) {}
+
+    /**
+     * Called when a list is opened.
+     *
+     * @param name The name of the list.
+     */
+    default void startList(final @NotNull String name) {}
+
+    /**
+     * Called for every element of the current list.
+     *
+     * @param value The typed element.
+     */
+    default void listElement(final @NotNull Object value) {}
+
+    /**
+     * Called when the current list is closed.
+     */
+    default void endList() {}
+}
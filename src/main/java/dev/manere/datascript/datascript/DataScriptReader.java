@@ -0,0 +1,440 @@
+package dev.manere.datascript.datascript;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Streaming, event-based reader for DataScript documents.
+ * <p>
+ * The reader can be pulled with {@link #next()} or can push every event to a {@link DataScriptHandler}
+ * through {@link #accept(DataScriptHandler)}. Lists are streamed element by element, so memory use
+ * only depends on the longest line and not on the size of the document.
+ * <p>
+ * Values are converted lazily: {@link #value()} converts the current literal on demand, which makes
+ * skipping uninteresting parts of a document cheap. Names and values of an event are only valid
+ * until the next call to {@link #next()}.
+ */
+public final class DataScriptReader implements Closeable {
+    private final Reader reader;
+    private final DataScriptScanner scanner;
+    private final StringBuilder pending = new StringBuilder();
+
+    private char[] scratch = new char[64];
+
+    private Event event;
+    private String name;
+    private int depth;
+    private boolean closeSection;
+
+    private char[] valueChars;
+    private int valueStart;
+    private int valueEnd;
+    private Object value;
+
+    private boolean list;
+    private boolean listDone;
+    private boolean listClosed;
+    private int listCursor;
+    private int listEnd;
+    private int emittedElements;
+    private int pendingEmpty;
+    private int emitEmpty;
+    private int pieces;
+    private boolean held;
+    private char[] heldChars;
+    private int heldStart;
+    private int heldEnd;
+    private int heldLength;
+
+    /**
+     * Constructs a new reader consuming the provided reader.
+     *
+     * @param reader The reader to consume.
+     */
+    public DataScriptReader(final @NotNull Reader reader) {
+        this.reader = reader;
+        this.scanner = new DataScriptScanner(reader);
+    }
+
+    /**
+     * Opens a reader over a UTF-8 encoded file.
+     *
+     * @param file The file to read.
+     * @return A new reader, which must be closed by the caller.
+     * @throws IOException if the file cannot be opened.
+     */
+    @NotNull
+    public static DataScriptReader open(final @NotNull File file) throws IOException {
+        return new DataScriptReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a reader over a UTF-8 encoded file, memory-mapping it instead of reading it through a stream.
+     * Characters are decoded straight from the mapping into the reader's buffer.
+     *
+     * @param file The file to map.
+     * @return A new reader, which must be closed by the caller.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    @NotNull
+    public static DataScriptReader map(final @NotNull File file) throws IOException {
+        return new DataScriptReader(MappedFileReader.open(file));
+    }
+
+    /**
+     * Advances to the next event.
+     *
+     * @return The next event, or null at the end of the document.
+     * @throws IOException if the underlying reader fails.
+     */
+    @Nullable
+    public Event next() throws IOException {
+        value = null;
+        valueChars = null;
+
+        if (list) return event = nextElement();
+
+        if (closeSection) {
+            closeSection = false;
+            depth--;
+            return event = Event.END_SECTION;
+        }
+
+        while (scanner.next()) {
+            if (scanner.blank()) continue;
+
+            final char[] chars = scanner.buffer();
+            final int start = scanner.start();
+            final int end = scanner.end();
+
+            if (end - start == 1 && chars[start] == '}') {
+                if (depth == 0) continue;
+
+                depth--;
+                return event = Event.END_SECTION;
+            }
+
+            final int equals = DataScriptScanner.indexOf(chars, start, end, '=');
+
+            if (equals < 0) {
+                if (chars[end - 1] == '{') {
+                    name = DataScriptScanner.key(chars, start, end);
+                    depth++;
+                    return event = Event.START_SECTION;
+                }
+
+                if (end - start >= 2 && chars[end - 2] == '{' && chars[end - 1] == '}') {
+                    name = DataScriptScanner.key(chars, start, end);
+                    depth++;
+                    closeSection = true;
+                    return event = Event.START_SECTION;
+                }
+
+                continue;
+            }
+
+            name = DataScriptScanner.key(chars, start, equals);
+
+            int valueStart = equals + 1;
+            while (valueStart < end && chars[valueStart] <= ' ') valueStart++;
+
+            if (valueStart < end && chars[valueStart] == '[') {
+                startList(valueStart + 1, end);
+                return event = Event.START_LIST;
+            }
+
+            valueChars = chars;
+            this.valueStart = valueStart;
+            this.valueEnd = end;
+            return event = Event.SCALAR;
+        }
+
+        if (depth > 0) {
+            depth--;
+            return event = Event.END_SECTION;
+        }
+
+        name = null;
+        return event = null;
+    }
+
+    /**
+     * Returns the current event.
+     *
+     * @return The current event, or null before the first or after the last event.
+     */
+    @Nullable
+    public Event event() {
+        return event;
+    }
+
+    /**
+     * Returns the name of the current {@link Event#START_SECTION}, {@link Event#SCALAR} or {@link Event#START_LIST}.
+     * For other events, this is the name of the last named event.
+     *
+     * @return The name.
+     */
+    @Nullable
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the current nesting depth. Inside a top-level section this is 1.
+     *
+     * @return The depth.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of characters consumed from the underlying reader, which is the offset of
+     * the line following the current event.
+     *
+     * @return The offset.
+     */
+    @ApiStatus.Internal
+    long offset() {
+        return scanner.offset();
+    }
+
+    /**
+     * Converts and returns the value of the current {@link Event#SCALAR} or {@link Event#LIST_ELEMENT}.
+     *
+     * @return The typed value.
+     * @throws IllegalStateException if the current event carries no value.
+     */
+    @NotNull
+    public Object value() {
+        if (value != null) return value;
+        if (valueChars == null) throw new IllegalStateException("No value for event " + event);
+
+        return value = valueStart == valueEnd
+            ? ""
+            : DataScriptScanner.literal(valueChars, valueStart, valueEnd, event == Event.LIST_ELEMENT);
+    }
+
+    /**
+     * Skips the remainder of the section or list opened by the current event.
+     * Values inside the skipped part are never converted.
+     *
+     * @throws IOException if the underlying reader fails.
+     */
+    public void skip() throws IOException {
+        if (event == Event.START_LIST) {
+            while (next() != Event.END_LIST) if (event == null) return;
+        } else if (event == Event.START_SECTION) {
+            final int target = depth - 1;
+            while (depth > target) if (next() == null) return;
+        }
+    }
+
+    /**
+     * Reads the remainder of the document, pushing every event to the given handler.
+     *
+     * @param handler The handler receiving the events.
+     * @throws IOException if the underlying reader fails.
+     */
+    public void accept(final @NotNull DataScriptHandler handler) throws IOException {
+        Event event;
+        while ((event = next()) != null) {
+            switch (event) {
+                case START_SECTION -> handler.startSection(name);
+                case END_SECTION -> handler.endSection();
+                case SCALAR -> handler.scalar(name, value());
+                case START_LIST -> handler.startList(name);
+                case LIST_ELEMENT -> handler.listElement(value());
+                case END_LIST -> handler.endList();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    @ApiStatus.Internal
+    private void startList(final int start, final int end) {
+        list = true;
+        listDone = false;
+        emittedElements = 0;
+        pendingEmpty = 0;
+        emitEmpty = 0;
+        pieces = 0;
+        held = false;
+        pending.setLength(0);
+
+        line(start, end);
+    }
+
+    @ApiStatus.Internal
+    private void line(final int start, final int end) {
+        listClosed = end > start && scanner.buffer()[end - 1] == ']';
+        listCursor = start;
+        listEnd = listClosed ? end - 1 : end;
+    }
+
+    /**
+     * Produces the next list event.
+     * <p>
+     * Empty elements are held back until a non-empty element follows, so trailing empty elements
+     * are dropped and {@code []} yields a single empty string, matching the behaviour of splitting
+     * the trimmed list body on commas. Only the number of held empty elements is kept. As with the split,
+     * an element made of spaces between two commas is not empty until trimmed, so it ends a run of
+     * trailing empty elements and is kept as an empty string.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    private Event nextElement() throws IOException {
+        while (true) {
+            if (emitEmpty > 0) {
+                emitEmpty--;
+                emittedElements++;
+                element(scratch, 0, 0);
+                return Event.LIST_ELEMENT;
+            }
+
+            if (held) {
+                held = false;
+                emittedElements++;
+                element(heldChars, heldStart, heldEnd);
+                return Event.LIST_ELEMENT;
+            }
+
+            if (listDone) {
+                if (emittedElements == 0 && pendingEmpty == 1) {
+                    pendingEmpty = 0;
+                    emittedElements++;
+                    element(scratch, 0, 0);
+                    return Event.LIST_ELEMENT;
+                }
+
+                list = false;
+                return Event.END_LIST;
+            }
+
+            if (!piece()) continue;
+
+            // Trimming the list body removes the spaces of the first and the last element only.
+            final boolean first = pieces++ == 0;
+            final boolean spaced = heldLength > 0 && !first && !listDone;
+
+            if (heldStart == heldEnd && !spaced) {
+                pendingEmpty++;
+            } else {
+                emitEmpty = pendingEmpty;
+                pendingEmpty = 0;
+                held = true;
+            }
+        }
+    }
+
+    /**
+     * Scans the next comma-separated piece into the held bounds, trimmed.
+     *
+     * @return true if a piece was found, false if the list ended without one.
+     */
+    @ApiStatus.Internal
+    private boolean piece() throws IOException {
+        while (true) {
+            final char[] chars = scanner.buffer();
+
+            for (int i = listCursor; i <= listEnd; i++) {
+                final boolean separator = i < listEnd && chars[i] == ',';
+                if (!separator && i < listEnd) continue;
+                if (!separator && !listClosed) break;
+
+                hold(chars, listCursor, i);
+                listCursor = i + 1;
+                if (!separator) listDone = true;
+                return true;
+            }
+
+            if (listCursor < listEnd) pending.append(chars, listCursor, listEnd - listCursor);
+
+            if (!scanner.next()) {
+                listDone = true;
+                if (pending.isEmpty()) return false;
+
+                hold(chars, listEnd, listEnd);
+                return true;
+            }
+
+            line(scanner.start(), scanner.end());
+        }
+    }
+
+    @ApiStatus.Internal
+    private void hold(char[] chars, int start, int end) {
+        if (!pending.isEmpty()) {
+            pending.append(chars, start, end - start);
+
+            final int length = pending.length();
+            if (scratch.length < length) scratch = new char[Math.max(length, scratch.length << 1)];
+
+            pending.getChars(0, length, scratch, 0);
+            pending.setLength(0);
+
+            chars = scratch;
+            start = 0;
+            end = length;
+        }
+
+        heldLength = end - start;
+        while (start < end && chars[start] <= ' ') start++;
+        while (end > start && chars[end - 1] <= ' ') end--;
+
+        heldChars = chars;
+        heldStart = start;
+        heldEnd = end;
+    }
+
+    @ApiStatus.Internal
+    private void element(final char @NotNull [] chars, final int start, final int end) {
+        valueChars = chars;
+        valueStart = start;
+        valueEnd = end;
+    }
+
+    /**
+     * Events produced by a {@link DataScriptReader}.
+     */
+    public enum Event {
+        /**
+         * A section was opened, its name is available through {@link #name()}.
+         */
+        START_SECTION,
+
+        /**
+         * The innermost open section was closed.
+         */
+        END_SECTION,
+
+        /**
+         * A scalar was read, its name and value are available through {@link #name()} and {@link #value()}.
+         */
+        SCALAR,
+
+        /**
+         * A list was opened, its name is available through {@link #name()}.
+         */
+        START_LIST,
+
+        /**
+         * A list element was read, its value is available through {@link #value()}.
+         */
+        LIST_ELEMENT,
+
+        /**
+         * The current list was closed.
+         */
+        END_LIST
+    }
+}
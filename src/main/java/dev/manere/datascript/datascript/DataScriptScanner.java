@@ -0,0 +1,311 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.KeyPool;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Single-pass, regex-free scanner over DataScript source text.
+ * <p>
+ * The input is read once into a reusable char buffer. Each call to {@link #next()} exposes the
+ * trimmed bounds of the next line inside {@link #buffer()}, so no String is allocated per line.
+ * Literals are classified by dispatching on their characters instead of matching regexes.
+ */
+@ApiStatus.Internal
+final class DataScriptScanner {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+    private long consumed;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private boolean skipLineFeed;
+
+    private int start;
+    private int end;
+
+    /**
+     * Constructs a new scanner reading from the provided reader.
+     *
+     * @param reader The reader to consume.
+     */
+    DataScriptScanner(final @NotNull Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return true if a line was read, false at the end of the input.
+     * @throws IOException if the underlying reader fails.
+     */
+    boolean next() throws IOException {
+        int scan = position;
+
+        while (true) {
+            if (skipLineFeed && position < limit) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') position++;
+                scan = position;
+            }
+
+            for (; scan < limit; scan++) {
+                final char c = buffer[scan];
+                if (c != '\n' && c != '\r') continue;
+
+                line(position, scan);
+                position = scan + 1;
+                skipLineFeed = c == '\r';
+                return true;
+            }
+
+            if (eof) {
+                if (position == limit) return false;
+
+                line(position, limit);
+                position = limit;
+                return true;
+            }
+
+            scan = fill(scan);
+        }
+    }
+
+    /**
+     * Returns the number of characters consumed from the reader up to the end of the current line.
+     * After a {@code \r\n} terminator, the {@code \n} is not counted yet.
+     *
+     * @return The offset of the character following the current line.
+     */
+    long offset() {
+        return consumed + position;
+    }
+
+    /**
+     * Returns the buffer holding the current line. Only valid until the next call to {@link #next()}.
+     *
+     * @return The backing buffer.
+     */
+    char @NotNull [] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the inclusive start of the trimmed current line.
+     *
+     * @return The start offset.
+     */
+    int start() {
+        return start;
+    }
+
+    /**
+     * Returns the exclusive end of the trimmed current line.
+     *
+     * @return The end offset.
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * Checks whether the trimmed current line is empty.
+     *
+     * @return true if the line is blank.
+     */
+    boolean blank() {
+        return start == end;
+    }
+
+    @ApiStatus.Internal
+    private void line(int from, int to) {
+        while (from < to && buffer[from] <= ' ') from++;
+        while (to > from && buffer[to - 1] <= ' ') to--;
+
+        this.start = from;
+        this.end = to;
+    }
+
+    @ApiStatus.Internal
+    private int fill(int scan) throws IOException {
+        if (position > 0) {
+            consumed += position;
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            scan -= position;
+            position = 0;
+        }
+
+        if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length << 1);
+
+        final int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read < 0) eof = true;
+        else limit += read;
+
+        return scan;
+    }
+
+    /**
+     * Returns the index of the first occurrence of a character in the given range, or -1.
+     */
+    static int indexOf(final char @NotNull [] chars, final int start, final int end, final char c) {
+        for (int i = start; i < end; i++) if (chars[i] == c) return i;
+        return -1;
+    }
+
+    /**
+     * Returns the trimmed range as a key, with every brace removed.
+     */
+    @NotNull
+    static String key(final char @NotNull [] chars, int start, int end) {
+        int braces = 0;
+        for (int i = start; i < end; i++) if (chars[i] == '{' || chars[i] == '}') braces++;
+
+        if (braces == 0) {
+            while (start < end && chars[start] <= ' ') start++;
+            while (end > start && chars[end - 1] <= ' ') end--;
+            return KeyPool.intern(chars, start, end);
+        }
+
+        final char[] stripped = new char[end - start - braces];
+        int length = 0;
+        for (int i = start; i < end; i++) if (chars[i] != '{' && chars[i] != '}') stripped[length++] = chars[i];
+
+        int from = 0;
+        while (from < length && stripped[from] <= ' ') from++;
+        while (length > from && stripped[length - 1] <= ' ') length--;
+        return KeyPool.intern(stripped, from, length);
+    }
+
+    /**
+     * Classifies and converts a trimmed literal.
+     * <p>
+     * Scalars accept booleans and bytes, list elements do not; an unrecognised literal is kept as raw text.
+     * Lists are not handled here, callers check for a leading {@code [} first.
+     *
+     * @param chars   The characters holding the literal.
+     * @param start   The inclusive start of the literal.
+     * @param end     The exclusive end of the literal.
+     * @param element Whether the literal is a list element.
+     * @return The converted value.
+     */
+    @NotNull
+    static Object literal(final char @NotNull [] chars, final int start, final int end, final boolean element) {
+        final int length = end - start;
+        if (length == 0) return "";
+
+        final char first = chars[start];
+        final char last = chars[end - 1];
+
+        switch (first) {
+            case 't', 'T', 'f', 'F' -> {
+                if (element) break;
+                if (matchesIgnoreCase(chars, start, end, "true")) return true;
+                if (matchesIgnoreCase(chars, start, end, "false")) return false;
+            }
+            case 'u' -> {
+                if (length >= 8 && last == ')' && chars[end - 2] == '\'' && matches(chars, start, "uuid('")) {
+                    return UUID.fromString(new String(chars, start + 6, length - 8));
+                }
+            }
+            case '\'' -> {
+                if (length >= 2 && last == '\'') return new String(chars, start + 1, length - 2);
+                if (length == 4 && last == 'C' && chars[start + 2] == '\'') return chars[start + 1];
+            }
+            case '"' -> {
+                if (length >= 2 && last == '"') return new String(chars, start + 1, length - 2);
+            }
+            default -> {
+                if (isDigit(first)) {
+                    final Object number = number(chars, start, end, element);
+                    if (number != null) return number;
+                }
+            }
+        }
+
+        return new String(chars, start, length);
+    }
+
+    @Nullable
+    @ApiStatus.Internal
+    private static Object number(final char @NotNull [] chars, final int start, final int end, final boolean element) {
+        int digits = start;
+        while (digits < end && isDigit(chars[digits])) digits++;
+
+        if (digits == end) return (int) parse(chars, start, end, Integer.MAX_VALUE);
+        if (digits != end - 1) {
+            if (chars[digits] != '.' || chars[end - 1] != 'D') return null;
+
+            int fraction = digits + 1;
+            while (fraction < end - 1 && isDigit(chars[fraction])) fraction++;
+
+            if (fraction != end - 1 || fraction == digits + 1) return null;
+            return Double.parseDouble(new String(chars, start, end - 1 - start));
+        }
+
+        return switch (chars[digits]) {
+            case 'L' -> Long.valueOf(parse(chars, start, digits, Long.MAX_VALUE));
+            case 'S' -> Short.valueOf((short) parse(chars, start, digits, Short.MAX_VALUE));
+            case 'B' -> element ? null : Byte.valueOf((byte) parse(chars, start, digits, Byte.MAX_VALUE));
+            default -> null;
+        };
+    }
+
+    /**
+     * Parses an unsigned run of ASCII digits, rejecting values above the given maximum.
+     *
+     * @throws NumberFormatException if the value is out of range.
+     */
+    @ApiStatus.Internal
+    private static long parse(final char @NotNull [] chars, final int start, final int end, final long max) {
+        long value = 0;
+
+        for (int i = start; i < end; i++) {
+            final int digit = chars[i] - '0';
+            if (value > (max - digit) / 10) {
+                throw new NumberFormatException("For input string: \"" + new String(chars, start, end - start) + "\"");
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    @ApiStatus.Internal
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    @ApiStatus.Internal
+    private static boolean matches(final char @NotNull [] chars, final int start, final @NotNull String expected) {
+        for (int i = 0; i < expected.length(); i++) if (chars[start + i] != expected.charAt(i)) return false;
+        return true;
+    }
+
+    @ApiStatus.Internal
+    private static boolean matchesIgnoreCase(final char @NotNull [] chars, final int start, final int end, final @NotNull String expected) {
+        if (end - start != expected.length()) return false;
+
+        for (int i = 0; i < expected.length(); i++) {
+            final char actual = chars[start + i];
+            final char wanted = expected.charAt(i);
+
+            if (actual == wanted) continue;
+            if (Character.toUpperCase(actual) == Character.toUpperCase(wanted)) continue;
+            if (Character.toLowerCase(actual) == Character.toLowerCase(wanted)) continue;
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,113 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.*;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * {@link DataScriptHandler} building a node tree from the events of a {@link DataScriptReader}.
+ */
+@ApiStatus.Internal
+final class DataScriptTreeBuilder implements DataScriptHandler {
+    private final Deque<SectionNode> parents = new ArrayDeque<>();
+
+    private SectionNode current;
+    private String listName;
+    private List<Object> list;
+
+    /**
+     * Constructs a new builder adding every top-level node to the given section.
+     *
+     * @param root The section receiving the top-level nodes.
+     */
+    DataScriptTreeBuilder(final @NotNull SectionNode root) {
+        this.current = root;
+    }
+
+    @Override
+    public void startSection(final @NotNull String name) {
+        final SectionNode section = new IndexedSectionNode(name);
+        current.nodes().add(section);
+
+        parents.push(current);
+        current = section;
+    }
+
+    @Override
+    public void endSection() {
+        current = parents.pop();
+    }
+
+    @Override
+    public void scalar(final @NotNull String name, final @NotNull Object value) {
+        current.nodes().add(ScalarNode.of(name, value));
+    }
+
+    @Override
+    public void startList(final @NotNull String name) {
+        listName = name;
+        list = new ArrayList<>();
+    }
+
+    @Override
+    public void listElement(final @NotNull Object value) {
+        list.add(value);
+    }
+
+    @Override
+    public void endList() {
+        current.nodes().add(ScalarNode.of(listName, list(list)));
+
+        listName = null;
+        list = null;
+    }
+
+    /**
+     * Stores a list of ints, longs, doubles, shorts or bytes in a primitive array. Other lists,
+     * including empty and mixed ones, keep their elements boxed in a synchronized list.
+     */
+    @NotNull
+    @ApiStatus.Internal
+    private static List<?> list(final @NotNull List<Object> list) {
+        if (list.isEmpty()) return Collections.synchronizedList(list);
+
+        final Class<?> type = list.get(0).getClass();
+        for (final Object element : list) if (element.getClass() != type) return Collections.synchronizedList(list);
+
+        final int size = list.size();
+
+        if (type == Integer.class) {
+            final int[] values = new int[size];
+            for (int i = 0; i < size; i++) values[i] = (Integer) list.get(i);
+            return new IntList(values);
+        }
+
+        if (type == Long.class) {
+            final long[] values = new long[size];
+            for (int i = 0; i < size; i++) values[i] = (Long) list.get(i);
+            return new LongList(values);
+        }
+
+        if (type == Double.class) {
+            final double[] values = new double[size];
+            for (int i = 0; i < size; i++) values[i] = (Double) list.get(i);
+            return new DoubleList(values);
+        }
+
+        if (type == Short.class) {
+            final short[] values = new short[size];
+            for (int i = 0; i < size; i++) values[i] = (Short) list.get(i);
+            return new ShortList(values);
+        }
+
+        if (type == Byte.class) {
+            final byte[] values = new byte[size];
+            for (int i = 0; i < size; i++) values[i] = (Byte) list.get(i);
+            return new ByteList(values);
+        }
+
+        return Collections.synchronizedList(list);
+    }
+}
@@ -0,0 +1,69 @@
+package dev.manere.datascript.datascript;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+
+/**
+ * Watches a single file through a {@link WatchService} on its directory, calling back from a daemon thread
+ * whenever the file is created, modified or replaced.
+ * <p>
+ * Events are reported as they arrive; debouncing bursts of them is up to the callback.
+ */
+@ApiStatus.Internal
+final class FileWatcher implements Closeable {
+    private final WatchService service;
+    private final Thread thread;
+
+    /**
+     * Starts watching the given file.
+     *
+     * @param file     The file to watch.
+     * @param callback Called after every batch of events concerning the file.
+     * @throws IOException if the directory of the file cannot be watched.
+     */
+    FileWatcher(final @NotNull Path file, final @NotNull Runnable callback) throws IOException {
+        final Path target = file.toAbsolutePath();
+        final Path name = target.getFileName();
+
+        this.service = target.getFileSystem().newWatchService();
+        target.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        this.thread = new Thread(() -> run(name, callback), "DataScript Watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @ApiStatus.Internal
+    private void run(final @NotNull Path name, final @NotNull Runnable callback) {
+        try {
+            while (true) {
+                final WatchKey key = service.take();
+                boolean changed = false;
+
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    // An overflow means events were lost, one of which may have been ours.
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) changed = true;
+                }
+
+                if (!key.reset()) return;
+                if (changed) callback.run();
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException ignored) {
+            // Closed, stop watching.
+        }
+    }
+
+    /**
+     * Stops watching the file.
+     *
+     * @throws IOException if the watch service cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        service.close();
+    }
+}
@@ -0,0 +1,111 @@
+package dev.manere.datascript.datascript;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Set;
+
+/**
+ * Writes files, either in place or atomically through a temporary file, optionally forcing them to disk.
+ */
+@ApiStatus.Internal
+final class FileWrites {
+    private FileWrites() {}
+
+    /**
+     * Writes a file.
+     * <p>
+     * In atomic mode the contents go to a temporary file in the same directory which then replaces the
+     * target with an atomic rename, so readers and crashes only ever observe the old or the new contents.
+     * With fsync, the file contents (and, where supported, the directory entry) are forced to disk
+     * before returning.
+     *
+     * @param file   The target file.
+     * @param atomic Whether to replace the file atomically.
+     * @param fsync  Whether to force the written data to disk.
+     * @param body   Writes the contents.
+     * @throws IOException if writing fails.
+     */
+    static void write(final @NotNull File file, final boolean atomic, final boolean fsync, final @NotNull Body body) throws IOException {
+        final Path target = file.toPath().toAbsolutePath();
+
+        if (!atomic) {
+            write(target, fsync, body, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            return;
+        }
+
+        final Path directory = target.getParent();
+        final Path temporary = Files.createTempFile(directory, "." + target.getFileName(), ".tmp");
+
+        try {
+            copyPermissions(target, temporary);
+            write(temporary, fsync, body);
+
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            if (fsync) forceDirectory(directory);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @ApiStatus.Internal
+    private static void write(final @NotNull Path path, final boolean fsync, final @NotNull Body body, final @NotNull OpenOption @NotNull ... options) throws IOException {
+        final OpenOption[] open = new OpenOption[options.length + 1];
+        System.arraycopy(options, 0, open, 0, options.length);
+        open[options.length] = StandardOpenOption.WRITE;
+
+        try (final FileChannel channel = FileChannel.open(path, open)) {
+            final OutputStream out = Channels.newOutputStream(channel);
+            body.write(out);
+            out.flush();
+
+            if (fsync) channel.force(true);
+        }
+    }
+
+    @ApiStatus.Internal
+    private static void copyPermissions(final @NotNull Path from, final @NotNull Path to) {
+        try {
+            final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(from);
+            Files.setPosixFilePermissions(to, permissions);
+        } catch (final IOException | UnsupportedOperationException ignored) {
+            // A missing target or a non-POSIX file system keeps the default permissions.
+        }
+    }
+
+    @ApiStatus.Internal
+    private static void forceDirectory(final @NotNull Path directory) {
+        try (final FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (final IOException ignored) {
+            // Not every platform allows opening directories, the file itself is already forced.
+        }
+    }
+
+    /**
+     * Writes the contents of a file.
+     */
+    @FunctionalInterface
+    interface Body {
+        /**
+         * Writes the contents into the given stream. Buffered writers wrapping it must be flushed,
+         * but the stream must not be closed.
+         *
+         * @param out The stream.
+         * @throws IOException if writing fails.
+         */
+        void write(final @NotNull OutputStream out) throws IOException;
+    }
+}
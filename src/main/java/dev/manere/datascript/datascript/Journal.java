@@ -0,0 +1,260 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigNode;
+import dev.manere.datascript.api.SectionNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * An append-only log of changes stored next to a configuration file, named after it with a
+ * {@code .journal} suffix. The configuration file is the snapshot the journal applies to.
+ * <pre>
+ * journal := magic(00 'D' 'S' 'J') version(u8) snapshotLength(u64) snapshotCrc(u32) record*
+ * record  := length(varint) crc(u32) change
+ * </pre>
+ * The length and the CRC32C of the snapshot tie a journal to the exact snapshot it was started for,
+ * so a journal left behind by an interrupted compaction, or a snapshot edited by hand, is ignored
+ * rather than replayed onto the wrong contents. Changes are encoded by {@link DataScriptBinary#change}
+ * and each record carries its own CRC32C, so a tail torn by a crash is dropped on replay.
+ * <p>
+ * Changes are first recorded in memory and only written by {@link #append(boolean)}, so recording
+ * never touches the disk on the thread that made the change.
+ */
+@ApiStatus.Internal
+final class Journal {
+    private static final byte[] MAGIC = {0, 'D', 'S', 'J'};
+    private static final int VERSION = 1;
+    private static final int HEADER = MAGIC.length + 1 + 8 + 4;
+
+    private final File snapshot;
+    private final File file;
+    private final Object lock = new Object();
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+    private volatile boolean valid;
+    private volatile long size;
+
+    /**
+     * Constructs a new journal for the given snapshot. Nothing is read until {@link #replay(SectionNode)}.
+     *
+     * @param snapshot The configuration file.
+     */
+    Journal(final @NotNull File snapshot) {
+        this.snapshot = snapshot;
+        this.file = new File(snapshot.getPath() + ".journal");
+    }
+
+    /**
+     * Records a change to a single node in memory.
+     *
+     * @param parent The keys leading from the root to the section holding the node.
+     * @param key    The key of the node.
+     * @param node   The node as it is now, or null if it was removed.
+     */
+    void record(final @NotNull List<String> parent, final @NotNull String key, final @Nullable ConfigNode node) {
+        final byte[] change = DataScriptBinary.change(parent, key, node);
+
+        final CRC32C crc = new CRC32C();
+        crc.update(change);
+
+        synchronized (lock) {
+            for (int value = change.length; ; value >>>= 7) {
+                if ((value & ~0x7F) == 0) {
+                    pending.write(value);
+                    break;
+                }
+
+                pending.write((value & 0x7F) | 0x80);
+            }
+
+            final int checksum = (int) crc.getValue();
+            pending.write(checksum >>> 24);
+            pending.write(checksum >>> 16);
+            pending.write(checksum >>> 8);
+            pending.write(checksum);
+            pending.write(change, 0, change.length);
+        }
+    }
+
+    /**
+     * Discards the changes recorded since the last append, returning them.
+     *
+     * @return The framed records.
+     */
+    byte @NotNull [] drain() {
+        synchronized (lock) {
+            if (pending.size() == 0) return new byte[0];
+
+            final byte[] records = pending.toByteArray();
+            pending = new ByteArrayOutputStream();
+            return records;
+        }
+    }
+
+    /**
+     * Checks whether the journal on disk belongs to the current snapshot, so changes can be appended to it.
+     *
+     * @return true if changes can be appended.
+     */
+    boolean valid() {
+        return valid;
+    }
+
+    /**
+     * Marks the journal as no longer describing the live tree, such as after loading other contents,
+     * so the next save writes a new snapshot instead of appending.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Returns the size of the journal file as last written.
+     *
+     * @return The size in bytes.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Appends the changes recorded since the last append to the journal file.
+     *
+     * @param fsync Whether to force the appended records to disk.
+     * @return The number of bytes appended.
+     * @throws IOException if writing fails.
+     */
+    int append(final boolean fsync) throws IOException {
+        final byte[] records = drain();
+        if (records.length == 0) return 0;
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(records);
+            while (buffer.hasRemaining()) channel.write(buffer);
+
+            if (fsync) channel.force(false);
+            size = channel.size();
+        }
+
+        return records.length;
+    }
+
+    /**
+     * Starts a new, empty journal for a snapshot that was just written.
+     *
+     * @param length The length of the snapshot.
+     * @param crc    The CRC32C of the snapshot.
+     * @param fsync  Whether to force the journal to disk.
+     * @throws IOException if writing fails.
+     */
+    void reset(final long length, final int crc, final boolean fsync) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.BIG_ENDIAN);
+        header.put(MAGIC).put((byte) VERSION).putLong(length).putInt(crc);
+
+        FileWrites.write(file, true, fsync, out -> out.write(header.array()));
+
+        size = HEADER;
+        valid = true;
+    }
+
+    /**
+     * Applies the journaled changes to a tree freshly loaded from the snapshot. Does nothing if there
+     * is no journal or it belongs to another snapshot, in which case the next save writes a new snapshot.
+     * Records after the first torn or corrupt one are dropped.
+     *
+     * @param loaded The loaded tree.
+     * @throws IOException if the snapshot cannot be read.
+     */
+    void replay(final @NotNull SectionNode loaded) throws IOException {
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.BIG_ENDIAN);
+        } catch (final NoSuchFileException e) {
+            valid = false;
+            return;
+        }
+
+        if (!matches(buffer)) {
+            valid = false;
+            return;
+        }
+
+        int end = HEADER;
+        while (buffer.hasRemaining()) {
+            final int length = varint(buffer);
+            if (length < 0 || buffer.remaining() < 4 + length) break;
+
+            final int checksum = buffer.getInt();
+            final ByteBuffer change = buffer.slice(buffer.position(), length);
+
+            final CRC32C crc = new CRC32C();
+            crc.update(change.duplicate());
+            if ((int) crc.getValue() != checksum) break;
+
+            DataScriptBinary.apply(change, loaded);
+            buffer.position(buffer.position() + length);
+            end = buffer.position();
+        }
+
+        // Cut a torn tail off, or records appended after it would never be replayed.
+        if (end < buffer.limit()) {
+            try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+
+        size = end;
+        valid = true;
+    }
+
+    /**
+     * Checks the header of a journal against the snapshot on disk, leaving the buffer after the header.
+     */
+    @ApiStatus.Internal
+    private boolean matches(final @NotNull ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER) return false;
+
+        for (final byte b : MAGIC) if (buffer.get() != b) return false;
+        if ((buffer.get() & 0xFF) != VERSION) return false;
+
+        final long length = buffer.getLong();
+        final int crc = buffer.getInt();
+        if (!snapshot.exists() || snapshot.length() != length) return false;
+
+        try (final CheckedInputStream in = new CheckedInputStream(new FileInputStream(snapshot), new CRC32C())) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return (int) in.getChecksum().getValue() == crc;
+        }
+    }
+
+    /**
+     * Reads a varint, or returns -1 if the buffer ends in the middle of it.
+     */
+    @ApiStatus.Internal
+    private static int varint(final @NotNull ByteBuffer buffer) {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!buffer.hasRemaining()) return -1;
+
+            final int b = buffer.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,225 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.IndexedSectionNode;
+import dev.manere.datascript.api.NodeSet;
+import dev.manere.datascript.api.SectionNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+
+/**
+ * Section whose children are only parsed when they are first accessed.
+ * <p>
+ * A lazy load only records where each section body starts and ends. The body is parsed the first
+ * time {@link #nodes()} is called, and the sections inside it are lazy again, so a load only pays
+ * for the parts of a document that are actually read. Until then the section keeps a reference to
+ * the source it was loaded from.
+ */
+@ApiStatus.Internal
+final class LazySectionNode extends IndexedSectionNode {
+    private Body body;
+    private volatile boolean loaded;
+
+    /**
+     * Constructs a new section whose children are produced by the given body on first access.
+     *
+     * @param name The name of the section.
+     * @param body Adds the children of the section.
+     */
+    LazySectionNode(final @NotNull String name, final @NotNull Body body) {
+        super(name);
+        this.body = body;
+    }
+
+    /**
+     * Reads the top-level nodes of a text document into the given section, leaving every section lazy.
+     *
+     * @param source The source text.
+     * @param start  The start of the range to read.
+     * @param end    The end of the range to read.
+     * @param target The section receiving the nodes.
+     * @throws IOException if the source cannot be read.
+     */
+    static void text(final char @NotNull [] source, final int start, final int end, final @NotNull SectionNode target) throws IOException {
+        scan(source, start, end, target, (name, from, to) -> new LazySectionNode(name, section -> text(source, from, to, section)));
+    }
+
+    /**
+     * Reads the top-level nodes of a text document into the given section, and creates each section
+     * through the given factory from the range of its body.
+     * <p>
+     * Section bodies are only split into lines and matched against the rules {@link DataScriptReader}
+     * uses to open and close sections and lists, so no key is read and no value is converted inside them.
+     * Only the stretches of top-level lines between sections that hold a scalar or a list are run through
+     * the reader. Like the reader, the scan does not understand quotes, so a brace or bracket ending a
+     * line inside a quoted value counts as syntax for both.
+     *
+     * @param source   The source text.
+     * @param start    The start of the range to read.
+     * @param end      The end of the range to read.
+     * @param target   The section receiving the nodes.
+     * @param sections Creates the sections.
+     * @throws IOException if the source cannot be read.
+     */
+    static void scan(final char @NotNull [] source, final int start, final int end, final @NotNull SectionNode target, final @NotNull Sections sections) throws IOException {
+        final DataScriptTreeBuilder builder = new DataScriptTreeBuilder(target);
+
+        // Top-level lines from gap on are not read yet, and hold a scalar or list if values is set.
+        int gap = start;
+        boolean values = false;
+
+        int depth = 0;
+        boolean list = false;
+        String name = null;
+        int body = start;
+
+        for (int next = start; next < end; ) {
+            final int line = next;
+
+            int lineEnd = line;
+            while (lineEnd < end && source[lineEnd] != '\n' && source[lineEnd] != '\r') lineEnd++;
+
+            next = lineEnd;
+            if (next < end && source[next++] == '\r' && next < end && source[next] == '\n') next++;
+
+            int lineStart = line;
+            while (lineStart < lineEnd && source[lineStart] <= ' ') lineStart++;
+            while (lineEnd > lineStart && source[lineEnd - 1] <= ' ') lineEnd--;
+            if (lineStart == lineEnd) continue;
+
+            if (list) {
+                list = source[lineEnd - 1] != ']';
+                continue;
+            }
+
+            if (lineEnd - lineStart == 1 && source[lineStart] == '}') {
+                if (depth == 0) continue;
+
+                if (--depth == 0) {
+                    target.nodes().add(sections.create(name, body, next));
+                    gap = next;
+                }
+
+                continue;
+            }
+
+            final int equals = DataScriptScanner.indexOf(source, lineStart, lineEnd, '=');
+
+            if (equals < 0) {
+                final boolean open = source[lineEnd - 1] == '{';
+                final boolean empty = !open && lineEnd - lineStart >= 2 && source[lineEnd - 2] == '{' && source[lineEnd - 1] == '}';
+
+                if (open && depth > 0) depth++;
+                if (depth > 0 || (!open && !empty)) continue;
+
+                if (values) read(source, gap, line, builder);
+                values = false;
+
+                name = DataScriptScanner.key(source, lineStart, lineEnd);
+                body = next;
+
+                if (open) {
+                    depth = 1;
+                } else {
+                    target.nodes().add(sections.create(name, next, next));
+                    gap = next;
+                }
+
+                continue;
+            }
+
+            if (depth == 0) values = true;
+
+            int value = equals + 1;
+            while (value < lineEnd && source[value] <= ' ') value++;
+
+            // A list ends on the first line ending with a bracket, which may be the opening one.
+            if (value < lineEnd && source[value] == '[') list = !(lineEnd > value + 1 && source[lineEnd - 1] == ']');
+        }
+
+        if (depth > 0) target.nodes().add(sections.create(name, body, end));
+        else if (values) read(source, gap, end, builder);
+    }
+
+    /**
+     * Reads a range of top-level lines holding no section into the given builder.
+     */
+    @ApiStatus.Internal
+    private static void read(final char @NotNull [] source, final int from, final int to, final @NotNull DataScriptTreeBuilder builder) throws IOException {
+        try (final DataScriptReader reader = new DataScriptReader(new CharArrayReader(source, from, to - from))) {
+            reader.accept(builder);
+        }
+    }
+
+    /**
+     * Returns the children of this section, parsing them first if this is the first access.
+     *
+     * @return A {@link NodeSet} of child nodes.
+     */
+    @NotNull
+    @Override
+    public NodeSet nodes() {
+        if (!loaded) load();
+        return super.nodes();
+    }
+
+    /**
+     * Checks whether the children of this section were parsed already.
+     *
+     * @return true if the section was materialized.
+     */
+    boolean loaded() {
+        return loaded;
+    }
+
+    @ApiStatus.Internal
+    private synchronized void load() {
+        if (loaded) return;
+
+        // Parsing into a separate section keeps materialization from looking like a change to listeners.
+        final IndexedSectionNode section = new IndexedSectionNode(name());
+        try {
+            body.load(section);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        super.nodes().fill(section.nodes());
+
+        body = null;
+        loaded = true;
+    }
+
+    /**
+     * Creates the section found at a range of a document.
+     */
+    @FunctionalInterface
+    interface Sections {
+        /**
+         * Creates a section.
+         *
+         * @param name The name of the section.
+         * @param from The start of its body.
+         * @param to   The end of its body.
+         * @return The section.
+         */
+        @NotNull
+        SectionNode create(final @NotNull String name, final int from, final int to);
+    }
+
+    /**
+     * Adds the children of a lazy section.
+     */
+    @FunctionalInterface
+    interface Body {
+        /**
+         * Adds the children to the given section.
+         *
+         * @param section The section being loaded.
+         * @throws IOException if the source cannot be read.
+         */
+        void load(final @NotNull SectionNode section) throws IOException;
+    }
+}
@@ -0,0 +1,30 @@
+package dev.manere.datascript.datascript;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event covering the parsing of a configuration, from reading its source to
+ * having a complete tree, before it is applied to the live one.
+ */
+@Name("dev.manere.datascript.Load")
+@Label("DataScript Load")
+@Category("DataScript")
+@Description("A configuration was parsed")
+@StackTrace(false)
+final class LoadEvent extends Event {
+    @Label("File")
+    String file;
+
+    @Label("Format")
+    String format;
+
+    @Label("Size")
+    @DataAmount
+    long size;
+
+    @Label("Nodes")
+    int nodes;
+
+    @Label("Sections")
+    int sections;
+}
@@ -0,0 +1,166 @@
+package dev.manere.datascript.datascript;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link Reader} decoding UTF-8 straight out of a memory-mapped file.
+ * <p>
+ * Characters are decoded from the mapping directly into the caller's buffer, so no intermediate
+ * decoder, stream buffer or line String is involved. Files larger than a single mapping are
+ * mapped window by window. Malformed input raises {@link MalformedInputException}, like the
+ * strict decoder of {@code Files.newBufferedReader}.
+ */
+@ApiStatus.Internal
+final class MappedFileReader extends Reader {
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int RUN_SIZE = 8192;
+
+    private final FileChannel channel;
+    private final long size;
+    private final byte[] bytes = new byte[RUN_SIZE];
+
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private char pendingLowSurrogate;
+
+    /**
+     * Constructs a new reader over the given channel.
+     *
+     * @param channel The channel to map.
+     * @throws IOException if the channel cannot be mapped.
+     */
+    private MappedFileReader(final @NotNull FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        map(0);
+    }
+
+    /**
+     * Maps the given file for reading.
+     *
+     * @param file The file to map.
+     * @return A new reader, which must be closed by the caller.
+     * @throws IOException if the file cannot be opened or mapped.
+     */
+    @NotNull
+    static MappedFileReader open(final @NotNull File file) throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        try {
+            return new MappedFileReader(channel);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(final char @NotNull [] chars, final int offset, final int length) throws IOException {
+        if (length == 0) return 0;
+
+        int count = 0;
+
+        if (pendingLowSurrogate != 0) {
+            chars[offset + count++] = pendingLowSurrogate;
+            pendingLowSurrogate = 0;
+        }
+
+        while (count < length) {
+            if (!window.hasRemaining()) {
+                final long next = windowOffset + window.position();
+                if (next >= size) break;
+
+                map(next);
+            }
+
+            final MappedByteBuffer window = this.window;
+            final int limit = window.limit();
+            int position = window.position();
+
+            // ASCII fast path, the common case for configuration files: copy a run of bytes in bulk
+            // and widen them until the first non-ASCII byte.
+            final int run = Math.min(Math.min(length - count, limit - position), bytes.length);
+            window.get(position, bytes, 0, run);
+
+            int ascii = 0;
+            while (ascii < run && bytes[ascii] >= 0) chars[offset + count++] = (char) bytes[ascii++];
+
+            position += ascii;
+            window.position(position);
+            if (count == length || position == limit) continue;
+
+            count = decode(chars, offset, count, length);
+        }
+
+        return count == 0 ? -1 : count;
+    }
+
+    /**
+     * Decodes one multi-byte sequence starting at the current position of the window.
+     *
+     * @return The new number of characters written.
+     */
+    @ApiStatus.Internal
+    private int decode(final char @NotNull [] chars, final int offset, int count, final int length) throws IOException {
+        final int b = window.get(window.position());
+
+        final int needed = (b & 0xE0) == 0xC0 ? 2 : (b & 0xF0) == 0xE0 ? 3 : (b & 0xF8) == 0xF0 ? 4 : 0;
+        if (needed == 0) throw new MalformedInputException(1);
+
+        if (window.remaining() < needed) {
+            final long start = windowOffset + window.position();
+            if (start + needed > size) throw new MalformedInputException(window.remaining());
+
+            map(start);
+        }
+
+        final int position = window.position();
+        int codePoint = b & (0x7F >> needed);
+
+        for (int i = 1; i < needed; i++) {
+            final int continuation = window.get(position + i);
+            if ((continuation & 0xC0) != 0x80) throw new MalformedInputException(i);
+            codePoint = codePoint << 6 | continuation & 0x3F;
+        }
+
+        if (codePoint < (needed == 2 ? 0x80 : needed == 3 ? 0x800 : 0x10000)
+            || codePoint > Character.MAX_CODE_POINT
+            || needed == 3 && Character.isSurrogate((char) codePoint)) {
+            throw new MalformedInputException(needed);
+        }
+
+        window.position(position + needed);
+
+        if (needed < 4) {
+            chars[offset + count++] = (char) codePoint;
+            return count;
+        }
+
+        chars[offset + count++] = Character.highSurrogate(codePoint);
+
+        if (count < length) chars[offset + count++] = Character.lowSurrogate(codePoint);
+        else pendingLowSurrogate = Character.lowSurrogate(codePoint);
+
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @ApiStatus.Internal
+    private void map(final long offset) throws IOException {
+        windowOffset = offset;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, size - offset));
+    }
+}
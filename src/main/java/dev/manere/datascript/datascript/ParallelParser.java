@@ -0,0 +1,70 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.IndexedSectionNode;
+import dev.manere.datascript.api.SectionNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses a text document on several threads, one top-level section at a time.
+ * <p>
+ * A first pass on the calling thread reads top-level scalars and lists and finds where each top-level
+ * section body starts and ends, without converting anything inside them. The bodies are then parsed
+ * concurrently on the common fork-join pool, each into its own detached section that is moved into
+ * place once complete, so the threads never share a node set.
+ */
+@ApiStatus.Internal
+final class ParallelParser {
+    private ParallelParser() {}
+
+    /**
+     * Parses a whole document into the given section.
+     *
+     * @param source The source text.
+     * @param target The section receiving the nodes.
+     * @throws IOException if the source cannot be read.
+     */
+    static void parse(final char @NotNull [] source, final @NotNull SectionNode target) throws IOException {
+        final List<Chunk> chunks = new ArrayList<>();
+
+        LazySectionNode.scan(source, 0, source.length, target, (name, from, to) -> {
+            final IndexedSectionNode section = new IndexedSectionNode(name);
+            chunks.add(new Chunk(section, from, to));
+            return section;
+        });
+
+        try {
+            chunks.parallelStream().forEach(chunk -> chunk.parse(source));
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A top-level section and the range of its body.
+     *
+     * @param section The section, already added to the tree and still empty.
+     * @param from    The start of its body.
+     * @param to      The end of its body.
+     */
+    @ApiStatus.Internal
+    private record Chunk(@NotNull IndexedSectionNode section, int from, int to) {
+        void parse(final char @NotNull [] source) {
+            final IndexedSectionNode parsed = new IndexedSectionNode(section.name());
+
+            try (final DataScriptReader reader = new DataScriptReader(new CharArrayReader(source, from, to - from))) {
+                reader.accept(new DataScriptTreeBuilder(parsed));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            section.nodes().fill(parsed.nodes());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dev.manere.datascript.datascript;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event covering the serialization of a configuration, including writing it to disk.
+ */
+@Name("dev.manere.datascript.Save")
+@Label("DataScript Save")
+@Category("DataScript")
+@Description("A configuration was serialized")
+@StackTrace(false)
+final class SaveEvent extends Event {
+    @Label("File")
+    String file;
+
+    @Label("Format")
+    String format;
+
+    @Label("Size")
+    @DataAmount
+    long size;
+}
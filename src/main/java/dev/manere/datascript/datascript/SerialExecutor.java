@@ -0,0 +1,49 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.AsyncOperations;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs tasks one at a time, in submission order, on virtual threads.
+ * <p>
+ * Each configuration gets its own instance, so its background work stays ordered while a slow write
+ * of one file never delays the saves and reloads of another. No thread is kept while the queue is
+ * empty, so idle configurations cost nothing.
+ */
+@ApiStatus.Internal
+final class SerialExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Override
+    public void execute(final @NotNull Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    @ApiStatus.Internal
+    private void schedule() {
+        if (!tasks.isEmpty() && running.compareAndSet(false, true)) AsyncOperations.VIRTUAL_THREADS.execute(this::drain);
+    }
+
+    /**
+     * Runs queued tasks until the queue is empty. A task that throws ends the thread as it would on a
+     * single-thread executor, and the remaining tasks continue on a new one.
+     */
+    @ApiStatus.Internal
+    private void drain() {
+        try {
+            Runnable task;
+            while ((task = tasks.poll()) != null) task.run();
+        } finally {
+            running.set(false);
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigNode;
+import dev.manere.datascript.api.ScalarNode;
+import dev.manere.datascript.api.SectionNode;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Brings a live node tree in line with a freshly loaded one while touching as little of it as possible.
+ * <p>
+ * Nodes that did not change are kept, so references to unchanged sections and scalars stay valid.
+ * Scalars whose value changed but kept its type are updated in place, and everything else is replaced
+ * by the node from the new tree.
+ */
+@ApiStatus.Internal
+final class TreeMerge {
+    private TreeMerge() {}
+
+    /**
+     * Applies the contents of a section to another one.
+     *
+     * @param target The live section to update.
+     * @param source The section holding the new contents, whose nodes may be moved into the target.
+     */
+    @SuppressWarnings("unchecked")
+    static void apply(final @NotNull SectionNode target, final @NotNull SectionNode source) {
+        for (final Iterator<ConfigNode> iterator = target.nodes().iterator(); iterator.hasNext(); ) {
+            if (source.node(iterator.next().name()) == null) iterator.remove();
+        }
+
+        for (final ConfigNode node : source.nodes()) {
+            final ConfigNode current = target.node(node.name());
+
+            if (current instanceof SectionNode section && node instanceof SectionNode updated) {
+                apply(section, updated);
+                continue;
+            }
+
+            if (current instanceof ScalarNode<?> scalar && node instanceof ScalarNode<?> updated) {
+                final Object value = updated.value();
+                if (Objects.equals(scalar.value(), value)) continue;
+
+                if (scalar.value().getClass() == value.getClass()) {
+                    ((ScalarNode<Object>) scalar).set(value);
+                    continue;
+                }
+            }
+
+            target.nodes().add(node);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package dev.manere.datascript.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeListenersTest {
+    @Test
+    void inlineListenersRunOnTheWritingThreadWithoutLocks() {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        final ConfigSection section = root.createSection("section");
+        final Thread writer = Thread.currentThread();
+
+        final List<Object> seen = new ArrayList<>();
+        section.listen("k", change -> {
+            assertSame(writer, Thread.currentThread());
+            assertFalse(SectionLocks.holding());
+            seen.add(change.current());
+        });
+
+        section.set("k", 1);
+        section.rename("k", "other");
+        section.rename("other", "k");
+        section.unset("k");
+
+        assertEquals(4, seen.size());
+        assertEquals(1, seen.get(0));
+        assertNull(seen.get(3));
+    }
+
+    @Test
+    void failingListenersDoNotStopTheOthers() {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        final List<Throwable> reported = new ArrayList<>();
+        final List<Object> seen = new ArrayList<>();
+
+        final Thread thread = Thread.currentThread();
+        final Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler((ignored, e) -> reported.add(e));
+
+        try {
+            root.listen("k", change -> {
+                throw new IllegalStateException("listener");
+            });
+            root.listen("k", change -> seen.add(change.current()));
+
+            root.set("k", 1);
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+
+        assertEquals(1, root.getInt("k", -1));
+        assertEquals(List.of(1), seen);
+        assertEquals(1, reported.size());
+        assertInstanceOf(IllegalStateException.class, reported.get(0));
+    }
+}
@@ -0,0 +1,66 @@
+package dev.manere.datascript.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrimitiveListTest {
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void iterationsSeeASingleVersionWhileTheListChanges() throws Exception {
+        final IntList list = new IntList(new int[]{0});
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger torn = new AtomicInteger();
+
+        // The list always holds 0, 1, ..., n - 1, so any other sequence mixes two versions.
+        final Thread reader = Thread.ofPlatform().start(() -> {
+            while (!done.get()) {
+                int expected = 0;
+                for (final int value : list) if (value != expected++) torn.incrementAndGet();
+
+                final int[] values = list.ints().toArray();
+                for (int i = 0; i < values.length; i++) if (values[i] != i) torn.incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            list.addInt(list.size());
+            if (i % 3 == 0) list.remove(list.size() - 1);
+            if (i % 1_000 == 0) list.subList(list.size() / 2, list.size()).clear();
+        }
+
+        done.set(true);
+        reader.join();
+
+        assertEquals(0, torn.get());
+        for (int i = 0; i < list.size(); i++) assertEquals(i, list.getInt(i));
+    }
+
+    @Test
+    void listMethodsMatchABoxedList() {
+        final LongList list = new LongList();
+        list.add(1L);
+        list.addAll(List.of(2L, 3L, 4L));
+        list.add(0, 0L);
+        list.set(2, 5L);
+        assertEquals(3L, list.remove(3));
+
+        assertEquals(List.of(0L, 1L, 5L, 4L), list);
+        assertEquals(List.of(0L, 1L, 5L, 4L).hashCode(), list.hashCode());
+        assertArrayEquals(new long[]{0, 1, 5, 4}, list.toLongArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getLong(4));
+        assertThrows(UnsupportedOperationException.class, () -> {
+            final var iterator = list.iterator();
+            iterator.next();
+            iterator.remove();
+        });
+
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+}
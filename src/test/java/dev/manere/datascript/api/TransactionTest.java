@@ -0,0 +1,350 @@
+package dev.manere.datascript.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 2_000;
+
+    @Test
+    void concurrentTransactionsLoseNoUpdates() throws Exception {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        for (int i = 0; i < 4; i++) root.createSection("s" + i);
+
+        run(THREADS, thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                final int iteration = i;
+
+                root.transaction(transaction -> {
+                    transaction.section("s" + iteration % 4).set("t" + thread + "_" + iteration, iteration);
+                    transaction.section("s" + (iteration + 1) % 4).set("t" + thread + "_" + iteration, iteration);
+                    transaction.set("last" + thread, iteration);
+                });
+
+                // Plain writes of the same sections race with the transactions.
+                root.section("s" + iteration % 4).set("plain" + thread, iteration);
+            }
+        });
+
+        int keys = 0;
+        for (int i = 0; i < 4; i++) keys += root.section("s" + i).section().nodes().size();
+        assertEquals(2 * THREADS * ITERATIONS + 4 * THREADS, keys);
+
+        for (int thread = 0; thread < THREADS; thread++) assertEquals(ITERATIONS - 1, root.getInt("last" + thread, -1));
+    }
+
+    @Test
+    void snapshotsNeverSeePartOfATransaction() throws Exception {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        final ConfigSection first = root.createSection("first");
+        final ConfigSection second = root.createSection("second").createSection("nested");
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger torn = new AtomicInteger();
+        final AtomicInteger snapshots = new AtomicInteger();
+
+        final Thread reader = Thread.ofPlatform().start(() -> {
+            while (!done.get()) {
+                final ConfigSection snapshot = root.snapshot();
+                snapshots.incrementAndGet();
+
+                for (int thread = 0; thread < THREADS; thread++) {
+                    final int a = snapshot.section("first").getInt("v" + thread, -1);
+                    final int b = snapshot.section("second").section("nested").getInt("v" + thread, -1);
+                    if (a != b) torn.incrementAndGet();
+                }
+            }
+        });
+
+        run(THREADS, thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                final int iteration = i;
+
+                root.transaction(transaction -> {
+                    transaction.section("first").set("v" + thread, iteration);
+                    transaction.section("second").section("nested").set("v" + thread, iteration);
+                });
+            }
+        });
+
+        done.set(true);
+        reader.join();
+
+        assertTrue(snapshots.get() > 0);
+        assertEquals(0, torn.get());
+        for (int thread = 0; thread < THREADS; thread++) assertEquals(first.getInt("v" + thread, -1), second.getInt("v" + thread, -2));
+    }
+
+    @Test
+    void plainWritesAndTransactionsOfTheSameSections() throws Exception {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        final ConfigSection first = root.createSection("first");
+        final ConfigSection second = root.createSection("second");
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger torn = new AtomicInteger();
+
+        // Transactions add a key to both sections, so a snapshot holding it in only one saw half of one.
+        final Thread reader = Thread.ofPlatform().start(() -> {
+            while (!done.get()) {
+                final ConfigSection snapshot = root.snapshot();
+
+                for (final ConfigNode node : snapshot.section("first").section().nodes()) {
+                    if (node.name().startsWith("t") && snapshot.section("second").section().node(node.name()) == null) torn.incrementAndGet();
+                }
+            }
+        });
+
+        run(THREADS, thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                final String key = "t" + thread + "_" + i;
+
+                if (thread % 2 == 0) {
+                    root.transaction(transaction -> {
+                        transaction.section("first").set(key, 1);
+                        transaction.section("second").set(key, 1);
+                    });
+                } else {
+                    // Plain writes replace and remove keys of the same sections meanwhile.
+                    first.set("p" + thread, i % 2 == 0 ? i : "value " + i);
+                    second.set("p" + thread + "_" + i, i);
+                    second.unset("p" + thread + "_" + (i - 1));
+                }
+            }
+        });
+
+        done.set(true);
+        reader.join();
+
+        assertEquals(0, torn.get());
+        assertEquals(THREADS / 2 * ITERATIONS + THREADS / 2, first.section().nodes().size());
+        assertEquals(THREADS / 2 * ITERATIONS + THREADS / 2, second.section().nodes().size());
+
+        for (int thread = 1; thread < THREADS; thread += 2) {
+            assertEquals("value " + (ITERATIONS - 1), first.value("p" + thread).get());
+            assertEquals(ITERATIONS - 1, second.getInt("p" + thread + "_" + (ITERATIONS - 1), -1));
+        }
+    }
+
+    @Test
+    void listenersRunOnceTheWholeTransactionIsApplied() {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        root.set("a", 0);
+        root.set("b", 0);
+
+        final List<String> seen = new ArrayList<>();
+        root.listen("a", change -> {
+            assertFalse(SectionLocks.holding());
+            seen.add("a=" + change.current() + ", b=" + root.getInt("b", -1));
+        });
+
+        root.transaction(transaction -> transaction.set("a", 1).set("b", 2));
+
+        assertEquals(List.of("a=1, b=2"), seen);
+    }
+
+    @Test
+    void listenersWritingOtherSectionsDoNotDeadlock() {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        final ConfigSection first = root.createSection("first");
+        final ConfigSection second = root.createSection("second");
+
+        // Each listener takes the lock of the other section, so delivering under a lock would deadlock.
+        first.listen("k", change -> second.set("echo", change.current()));
+        second.listen("k", change -> first.set("echo", change.current()));
+
+        assertTimeoutPreemptively(Duration.ofMinutes(1), () -> run(THREADS, thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                final int iteration = i;
+
+                switch (thread % 3) {
+                    case 0 -> first.set("k", iteration);
+                    case 1 -> second.set("k", iteration);
+                    default -> root.transaction(transaction -> {
+                        transaction.section("second").set("k", iteration);
+                        transaction.section("first").set("k", iteration);
+                    });
+                }
+            }
+        }));
+    }
+
+    @Test
+    void renamedSectionsKeepTheirLock() throws Exception {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        final ConfigSection stale = root.createSection("a");
+        root.rename("a", "b");
+        final ConfigSection renamed = root.section("b");
+
+        assertSame(SectionLocks.of(stale.section()), SectionLocks.of(renamed.section()));
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final Thread renamer = Thread.ofPlatform().start(() -> {
+            while (!done.get()) {
+                root.rename("b", "c");
+                root.rename("c", "b");
+            }
+        });
+
+        // Both handles create the same subsections, which only works if they lock the same stripe.
+        run(THREADS, thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                final ConfigSection handle = (thread + i) % 2 == 0 ? stale : renamed;
+                handle.createSection("s" + i).set("t" + thread, i);
+            }
+        });
+
+        done.set(true);
+        renamer.join();
+
+        for (int i = 0; i < ITERATIONS; i++) assertEquals(THREADS, stale.section("s" + i).section().nodes().size());
+    }
+
+    @Test
+    void snapshotsWaitForAStalledTransactionWithoutSpinning() throws Exception {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch resume = new CountDownLatch(1);
+        root.section().nodes().add(new BlockingSection(entered, resume));
+
+        final Thread writer = Thread.ofPlatform().start(() -> root.transaction(transaction -> {
+            transaction.set("x", 1);
+            transaction.section("blocking").set("y", 2);
+        }));
+        entered.await();
+
+        final AtomicReference<ConfigSection> snapshot = new AtomicReference<>();
+        final Thread reader = Thread.ofPlatform().start(() -> snapshot.set(root.snapshot()));
+
+        // Once done spinning the reader blocks on the locks held by the transaction.
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (reader.getState() == Thread.State.RUNNABLE && System.nanoTime() < deadline) Thread.sleep(1);
+        final Thread.State state = reader.getState();
+
+        resume.countDown();
+        writer.join();
+        reader.join();
+
+        assertEquals(Thread.State.WAITING, state);
+        assertEquals(1, snapshot.get().getInt("x", -1));
+    }
+
+    @Test
+    void failedTransactionIsUndone() {
+        final ConfigSection root = new ConfigSection(new IndexedSectionNode("root"));
+        root.set("kept", 1);
+        root.createSection("moved").set("x", 1);
+        root.section().nodes().add(new FailingSection());
+
+        final List<ConfigChange> seen = new ArrayList<>();
+        root.listen(seen::add);
+
+        assertThrows(IllegalStateException.class, () -> root.transaction(transaction -> {
+            transaction.set("kept", 2).set("added", 3).rename("moved", "renamed");
+            transaction.section("failing").set("fail", 4);
+        }));
+
+        assertEquals(1, root.getInt("kept", -1));
+        assertNull(root.section().node("added"));
+        assertNull(root.section("renamed"));
+        assertEquals(1, root.section("moved").getInt("x", -1));
+        assertTrue(seen.isEmpty());
+
+        // The restored section is still attached, so its changes reach the root listeners.
+        root.section("moved").set("x", 5);
+        assertEquals(1, seen.size());
+    }
+
+    private static void run(final int threads, final @NotNull ThreadBody body) throws Exception {
+        try (final ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            final CyclicBarrier start = new CyclicBarrier(threads);
+            final List<Future<?>> futures = new ArrayList<>();
+
+            for (int thread = 0; thread < threads; thread++) {
+                final int id = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    body.run(id);
+                    return null;
+                }));
+            }
+
+            for (final Future<?> future : futures) future.get(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private interface ThreadBody {
+        void run(int thread);
+    }
+
+    /**
+     * A section whose set blocks until it is told to resume.
+     */
+    private static final class BlockingSection implements SectionNode {
+        private final Set<ConfigNode> nodes;
+
+        private BlockingSection(final @NotNull CountDownLatch entered, final @NotNull CountDownLatch resume) {
+            this.nodes = new HashSet<>() {
+                @Override
+                public boolean add(final ConfigNode node) {
+                    entered.countDown();
+
+                    try {
+                        resume.await();
+                    } catch (final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+
+                    return super.add(node);
+                }
+            };
+        }
+
+        @NotNull
+        @Override
+        public String name() {
+            return "blocking";
+        }
+
+        @NotNull
+        @Override
+        public Set<ConfigNode> nodes() {
+            return nodes;
+        }
+    }
+
+    /**
+     * A section whose set rejects the key {@code fail}.
+     */
+    private static final class FailingSection implements SectionNode {
+        private final Set<ConfigNode> nodes = new HashSet<>() {
+            @Override
+            public boolean add(final ConfigNode node) {
+                if (node.name().equals("fail")) throw new IllegalStateException("rejected");
+                return super.add(node);
+            }
+        };
+
+        @NotNull
+        @Override
+        public String name() {
+            return "failing";
+        }
+
+        @NotNull
+        @Override
+        public Set<ConfigNode> nodes() {
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package dev.manere.datascript.datascript;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotReloadTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void malformedFileKeepsTheLiveTreeUntilTheNextChange() throws Exception {
+        final File file = directory.resolve("config.dsb").toFile();
+        final List<Throwable> reported = new CopyOnWriteArrayList<>();
+
+        try (final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+            final Thread thread = new Thread(task);
+            thread.setUncaughtExceptionHandler((failed, throwable) -> reported.add(throwable));
+            return thread;
+        })) {
+            final DataScriptConfiguration configuration = DataScriptConfiguration.builder()
+                .file(file)
+                .format(DataScriptFormat.BINARY)
+                .atomicWrites(true)
+                .executor(executor)
+                .hotReload(true)
+                .reloadDelay(Duration.ofMillis(10))
+                .build();
+
+            try {
+                configuration.loadFromString("a = 1\nnested {\n  b = 1\n}\n");
+                configuration.saveToDisk();
+
+                // A file caught halfway through being written does not parse.
+                final byte[] bytes = Files.readAllBytes(file.toPath());
+                replace(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+                await(() -> !reported.isEmpty());
+                assertEquals(1, configuration.root().getInt("a", -1));
+                assertEquals(1, configuration.root().section("nested").getInt("b", -1));
+
+                // The next change is reloaded again.
+                final DataScriptConfiguration other = DataScriptConfiguration.builder()
+                    .file(directory.resolve("other.dsb").toFile())
+                    .build();
+                other.loadFromString("a = 2\nnested {\n  b = 2\n}\n");
+                replace(file, other.saveToBytes());
+
+                // Readers of the live tree may see the merge half done, the snapshot holds all of it.
+                await(() -> configuration.snapshot().getInt("a", -1) == 2);
+                assertEquals(2, configuration.snapshot().section("nested").getInt("b", -1));
+            } finally {
+                configuration.close();
+            }
+        }
+    }
+
+    /**
+     * Replaces the file in one step, since a reload catching it truncated would load an empty document.
+     */
+    private static void replace(final File file, final byte[] bytes) throws IOException {
+        final Path temporary = Files.write(file.toPath().resolveSibling(file.getName() + ".tmp"), bytes);
+        Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
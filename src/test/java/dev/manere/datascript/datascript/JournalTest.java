@@ -0,0 +1,82 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigSection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JournalTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 200;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayMatchesConcurrentWritesOfTheSameKey() throws Exception {
+        final File file = directory.resolve("config.ds").toFile();
+        Files.writeString(file.toPath(), "first {\n}\nsecond {\n}\n");
+
+        final DataScriptConfiguration configuration = DataScriptConfiguration.builder()
+            .file(file)
+            .journal(true)
+            .build();
+        configuration.loadFromDisk();
+        // The first save writes the whole file and starts the journal the changes below are appended to.
+        configuration.saveToDisk();
+
+        final ConfigSection root = configuration.root();
+        // A slow listener widens the gap between applying a change and delivering its events.
+        root.section("first").listen(change -> LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(50_000)));
+
+        try (final ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int round = 0; round < ROUNDS; round++) {
+                final CyclicBarrier start = new CyclicBarrier(THREADS);
+                final List<Future<?>> futures = new ArrayList<>();
+
+                // Transactions and plain sets replace the same key at once, so the journal must keep the order they were applied in.
+                for (int thread = 0; thread < THREADS; thread++) {
+                    final int value = round * THREADS + thread;
+
+                    futures.add(executor.submit(() -> {
+                        start.await();
+
+                        if (value % 2 == 0) {
+                            root.transaction(transaction -> {
+                                transaction.section("first").set("k", value);
+                                transaction.section("second").set("k", value);
+                            });
+                        } else {
+                            root.section("first").set("k", value);
+                            root.section("second").set("k", value);
+                        }
+
+                        return null;
+                    }));
+                }
+
+                for (final Future<?> future : futures) future.get(1, TimeUnit.MINUTES);
+                configuration.saveToDisk();
+
+                final DataScriptConfiguration reloaded = DataScriptConfiguration.builder()
+                    .file(file)
+                    .journal(true)
+                    .build();
+                reloaded.loadFromDisk();
+
+                for (final String section : List.of("first", "second")) {
+                    assertEquals(root.section(section).getInt("k", -1), reloaded.root().section(section).getInt("k", -2), "round " + round);
+                }
+            }
+        }
+    }
+}
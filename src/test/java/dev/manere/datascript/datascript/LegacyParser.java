@@ -0,0 +1,158 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigNode;
+import dev.manere.datascript.api.IndexedSectionNode;
+import dev.manere.datascript.api.ScalarNode;
+import dev.manere.datascript.api.SectionNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The regex-based parser that the single-pass scanner replaced, kept as the reference the scanner is
+ * compared against, both for the trees it builds and for its throughput.
+ * <p>
+ * The parsing logic is the one of the original {@code DataScriptConfiguration.parseNode}, unchanged.
+ * Only the nodes it creates differ: the original built anonymous sections and scalars, this copy builds
+ * the same node types as the current parser so that benchmarks compare parsing alone. Like the original,
+ * it never returns on a list left open at the end of the input.
+ */
+final class LegacyParser {
+    private LegacyParser() {}
+
+    /**
+     * Parses a document into the given section, as {@code loadFromString} did.
+     *
+     * @param document The document.
+     * @param root     The section receiving the top-level nodes.
+     */
+    static void parse(final @NotNull String document, final @NotNull SectionNode root) {
+        try (final BufferedReader reader = new BufferedReader(new StringReader(document))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                final ConfigNode node = parseNode(line, reader, 0);
+                if (node != null) root.nodes().add(node);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Nullable
+    private static ConfigNode parseNode(@NotNull String line, final @NotNull BufferedReader reader, final int depth) throws IOException {
+        final String indent = "  ".repeat(depth);
+        if (!line.startsWith(indent)) return null;
+
+        line = line.substring(indent.length());
+
+        final String[] parts = line.split("=", 2);
+        final String name = parts[0].trim();
+
+        final String key = name
+            .replaceAll("\\{", "")
+            .replaceAll("}", "")
+            .trim();
+
+        if (parts.length == 1) {
+            if (line.endsWith("{")) {
+                final SectionNode section = new IndexedSectionNode(key);
+
+                String childLine;
+                while ((childLine = reader.readLine()) != null && !childLine.trim().equals("}")) {
+                    final ConfigNode childNode = parseNode(childLine, reader, depth + 1);
+                    if (childNode != null) {
+                        section.nodes().add(childNode);
+                    }
+                }
+
+                return section;
+            } else if (line.endsWith("{}")) {
+                return new IndexedSectionNode(key);
+            }
+
+            return null;
+        }
+
+        final String value = parts[1].trim();
+
+        if (value.equalsIgnoreCase("true")) {
+            return ScalarNode.of(key, true);
+        } else if (value.equalsIgnoreCase("false")) {
+            return ScalarNode.of(key, false);
+        }
+
+        if (value.startsWith("uuid('") && value.endsWith("')")) {
+            return ScalarNode.of(key, UUID.fromString(value.replaceAll("uuid\\('", "").replaceAll("'\\)", "")));
+        }
+
+        if (value.startsWith("'") && value.endsWith("'") || value.startsWith("\"") && value.endsWith("\"")) {
+            return ScalarNode.of(key, value.substring(1, value.length() - 1));
+        } else if (value.matches("\\d+")) {
+            return ScalarNode.of(key, Integer.parseInt(value));
+        } else if (value.matches("\\d+L")) {
+            return ScalarNode.of(key, Long.parseLong(value.substring(0, value.length() - 1)));
+        } else if (value.matches("\\d+\\.\\d+D")) {
+            return ScalarNode.of(key, Double.parseDouble(value.substring(0, value.length() - 1)));
+        } else if (value.matches("'.'C")) {
+            return ScalarNode.of(key, value.charAt(1));
+        } else if (value.matches("\\d+S")) {
+            return ScalarNode.of(key, Short.parseShort(value.substring(0, value.length() - 1)));
+        } else if (value.matches("\\d+B")) {
+            return ScalarNode.of(key, Byte.parseByte(value.substring(0, value.length() - 1)));
+        } else if (value.startsWith("[")) {
+            // Handle list parsing
+            final List<Object> list = new ArrayList<>();
+            final StringBuilder listContent = new StringBuilder(value);
+
+            // Read until we find the closing bracket
+            while (!listContent.toString().trim().endsWith("]")) {
+                String nextLine = reader.readLine();
+                if (nextLine != null) {
+                    listContent.append(nextLine.trim());
+                }
+            }
+
+            // Remove the surrounding brackets
+            final String content = listContent.substring(1, listContent.length() - 1).trim();
+
+            // Split the content by commas and parse individual elements
+            final String[] elements = content.split(",");
+
+            for (String element : elements) {
+                element = element.trim();
+
+                if (element.startsWith("uuid('") && element.endsWith("')")) {
+                    list.add(UUID.fromString(element.replaceAll("uuid\\('", "").replaceAll("'\\)", "")));
+                } else if (element.matches("\\d+")) {
+                    list.add(Integer.parseInt(element));
+                } else if (element.matches("\\d+L")) {
+                    list.add(Long.parseLong(element.substring(0, element.length() - 1)));
+                } else if (element.matches("\\d+\\.\\d+D")) {
+                    list.add(Double.parseDouble(element.substring(0, element.length() - 1)));
+                } else if (element.matches("'.'C")) {
+                    list.add(element.charAt(1));
+                } else if (element.matches("\\d+S")) {
+                    list.add(Short.parseShort(element.substring(0, element.length() - 1)));
+                } else if (element.startsWith("'") && element.endsWith("'") || element.startsWith("\"") && element.endsWith("\"")) {
+                    list.add(element.substring(1, element.length() - 1));
+                } else {
+                    list.add(element);
+                }
+            }
+
+            return ScalarNode.of(key, Collections.synchronizedList(list));
+        } else {
+            return ScalarNode.of(key, value);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigNode;
+import dev.manere.datascript.api.IndexedSectionNode;
+import dev.manere.datascript.api.ScalarNode;
+import dev.manere.datascript.api.SectionNode;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the single-pass parser with the regex-based {@link LegacyParser} it replaced.
+ */
+class LegacyParserTest {
+    private static final String[] SEPARATORS = {"\n", "\r\n", "\r"};
+    private static final String[] WORDS = {"alpha", "two words", "a=b", "x{y", "end}", "{", "}", "trailing {", "-", "1.5", "12X"};
+
+    @Test
+    void randomDocumentsParseAsTheRegexParserDid() throws IOException {
+        final Random random = new Random(7);
+
+        for (int i = 0; i < 2_000; i++) {
+            final String document = document(random);
+            assertEquals(legacy(document), current(document), () -> document);
+        }
+    }
+
+    @Test
+    void quirksOfTheRegexParserAreKept() throws IOException {
+        final String document = """
+            empty = []
+            negative = -5
+            negativeLong = -5L
+            negativeList = [-1, 2]
+            trailing = [1, 2,]
+            trailingTwice = [1, 2,,]
+            inner = [1, , 2]
+            spaced = [1, , ]
+            leading = [, , ]
+            commas = [ , ]
+            unrecognised = [true, 7B]
+            wholeDouble = 5D
+            shout = TRUE
+            """;
+
+        final Map<String, Object> current = current(document);
+        assertEquals(legacy(document), current);
+
+        // An empty list holds a single empty string.
+        assertEquals(List.of(""), current.get("empty"));
+        // Numbers have no sign, negative ones are read as strings.
+        assertEquals("-5", current.get("negative"));
+        assertEquals("-5L", current.get("negativeLong"));
+        assertEquals(List.of("-1", 2), current.get("negativeList"));
+        // Empty elements are dropped at the end of a list only.
+        assertEquals(List.of(1, 2), current.get("trailing"));
+        assertEquals(List.of(1, 2), current.get("trailingTwice"));
+        assertEquals(List.of(1, "", 2), current.get("inner"));
+        // Elements made of spaces are only empty once trimmed, so they are kept, unless the trimmed list body dropped their spaces.
+        assertEquals(List.of(1, ""), current.get("spaced"));
+        assertEquals(List.of("", ""), current.get("leading"));
+        assertEquals(List.of(), current.get("commas"));
+        // Booleans and bytes are not recognised inside lists, nor doubles without a fraction anywhere.
+        assertEquals(List.of("true", "7B"), current.get("unrecognised"));
+        assertEquals("5D", current.get("wholeDouble"));
+        assertEquals(true, current.get("shout"));
+    }
+
+    @Test
+    void underIndentedLinesAreNowLoaded() throws IOException {
+        final String document = "section {\n key = 1\n  kept = 2\n}\n";
+
+        // The regex parser dropped child lines indented by less than two spaces per level.
+        assertEquals(Map.of("section", Map.of("kept", 2)), legacy(document));
+        assertEquals(Map.of("section", Map.of("key", 1, "kept", 2)), current(document));
+    }
+
+    @NotNull
+    private static Map<String, Object> legacy(final @NotNull String document) {
+        final IndexedSectionNode root = new IndexedSectionNode("root");
+        LegacyParser.parse(document, root);
+        return dump(root);
+    }
+
+    @NotNull
+    private static Map<String, Object> current(final @NotNull String document) throws IOException {
+        final IndexedSectionNode root = new IndexedSectionNode("root");
+
+        try (final DataScriptReader reader = new DataScriptReader(new StringReader(document))) {
+            reader.accept(new DataScriptTreeBuilder(root));
+        }
+
+        return dump(root);
+    }
+
+    /**
+     * Converts a tree to sorted maps, since sections do not keep the document order.
+     */
+    @NotNull
+    private static Map<String, Object> dump(final @NotNull SectionNode section) {
+        final Map<String, Object> result = new TreeMap<>();
+
+        for (final ConfigNode node : section.nodes()) {
+            if (node instanceof SectionNode child) result.put(node.name(), dump(child));
+            else if (node instanceof ScalarNode<?> scalar) result.put(node.name(), scalar.value());
+        }
+
+        return result;
+    }
+
+    /**
+     * Generates a document the regex parser reads as intended: indented by two spaces per level, with
+     * unique keys per section and every list closed. It never returned on a list left open.
+     */
+    @NotNull
+    private static String document(final @NotNull Random random) {
+        final String separator = SEPARATORS[random.nextInt(SEPARATORS.length)];
+        final StringBuilder builder = new StringBuilder();
+        section(builder, random, separator, 0);
+        return builder.toString();
+    }
+
+    private static void section(final @NotNull StringBuilder out, final @NotNull Random random, final @NotNull String separator, final int depth) {
+        final String indent = "  ".repeat(depth);
+
+        for (int line = random.nextInt(depth == 0 ? 20 : 8); line > 0; line--) {
+            final String key = "key" + line;
+            if (random.nextInt(5) == 0) out.append(separator);
+
+            switch (random.nextInt(depth < 3 ? 12 : 10)) {
+                case 0, 1 -> single(out.append(indent).append(key).append(" = "), random).append(separator);
+                case 2 -> multiline(out.append(indent).append(key).append(" = "), random, separator, indent).append(separator);
+                case 10 -> {
+                    out.append(indent).append(key).append(" {").append(separator);
+                    section(out, random, separator, depth + 1);
+                    out.append(indent).append('}').append(separator);
+                }
+                case 11 -> out.append(indent).append(key).append(" {}").append(separator);
+                default -> out.append(indent).append(key).append(" = ").append(literal(random)).append(separator);
+            }
+        }
+    }
+
+    @NotNull
+    private static String literal(final @NotNull Random random) {
+        return switch (random.nextInt(14)) {
+            case 0 -> random.nextBoolean() ? "true" : "False";
+            case 1 -> "'" + word(random) + "'";
+            case 2 -> "\"" + word(random) + "\"";
+            case 3 -> String.valueOf(random.nextInt(100_000));
+            case 4 -> random.nextInt(100_000) + "L";
+            case 5 -> random.nextInt(1_000) + "." + random.nextInt(1_000) + "D";
+            case 6 -> "'" + (char) ('a' + random.nextInt(26)) + "'C";
+            case 7 -> random.nextInt(30_000) + "S";
+            case 8 -> random.nextInt(128) + "B";
+            case 9 -> "uuid('" + new UUID(random.nextLong(), random.nextLong()) + "')";
+            case 10 -> "-" + random.nextInt(1_000);
+            case 11 -> random.nextInt(100) + "D";
+            default -> word(random);
+        };
+    }
+
+    /**
+     * Generates a list element, of the given kind or of a random one when the kind is negative.
+     */
+    @NotNull
+    private static String element(final @NotNull Random random, final int kind) {
+        return switch (kind < 0 ? random.nextInt(11) : kind) {
+            case 0 -> String.valueOf(random.nextInt(100_000));
+            case 1 -> random.nextInt(100_000) + "L";
+            case 2 -> random.nextInt(1_000) + "." + random.nextInt(1_000) + "D";
+            case 3 -> "'" + (char) ('a' + random.nextInt(26)) + "'C";
+            case 4 -> random.nextInt(30_000) + "S";
+            case 5 -> "'" + word(random) + "'";
+            case 6 -> "\"" + word(random) + "\"";
+            case 7 -> "uuid('" + new UUID(random.nextLong(), random.nextLong()) + "')";
+            case 8 -> random.nextBoolean() ? "true" : random.nextInt(128) + "B";
+            case 9 -> "-" + random.nextInt(100);
+            default -> "";
+        };
+    }
+
+    /**
+     * Picks a word that holds no comma, quote or closing bracket, which the regex parser split lists on.
+     */
+    @NotNull
+    private static String word(final @NotNull Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    @NotNull
+    private static StringBuilder single(final @NotNull StringBuilder out, final @NotNull Random random) {
+        // Homogeneous lists are loaded into primitive lists, mixed ones stay boxed.
+        final int kind = random.nextBoolean() ? random.nextInt(8) : -1;
+
+        out.append('[');
+        for (int i = random.nextInt(5); i > 0; i--) {
+            out.append(element(random, kind));
+            if (i > 1 || random.nextInt(4) == 0) out.append(", ");
+        }
+        return out.append(']');
+    }
+
+    /**
+     * Writes a list in the layout of the emitter: one element per line, with blank lines in between.
+     */
+    @NotNull
+    private static StringBuilder multiline(final @NotNull StringBuilder out, final @NotNull Random random, final @NotNull String separator, final @NotNull String indent) {
+        final int kind = random.nextBoolean() ? random.nextInt(8) : -1;
+
+        out.append('[').append(separator);
+        for (int i = 1 + random.nextInt(4); i > 0; i--) {
+            out.append(indent).append("  ").append(element(random, kind));
+            if (i > 1) out.append(',').append(separator).append(separator);
+            else out.append(separator);
+        }
+        return out.append(indent).append(']');
+    }
+}
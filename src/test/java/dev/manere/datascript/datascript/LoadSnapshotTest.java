@@ -0,0 +1,76 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigSection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSnapshotTest {
+    private static final int LOADS = 2_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void listenerTakingASnapshotSeesTheWholeLoad() {
+        final DataScriptConfiguration configuration = DataScriptConfiguration.builder()
+            .file(directory.resolve("config.ds").toFile())
+            .build();
+        configuration.loadFromString("a = 1\nnested {\n  b = 1\n}\n");
+
+        final List<String> seen = new ArrayList<>();
+        configuration.root().listen(change -> {
+            final ConfigSection snapshot = configuration.snapshot();
+            seen.add(snapshot.getInt("a", -1) + ", " + snapshot.section("nested").getInt("b", -1));
+        });
+
+        assertTimeoutPreemptively(Duration.ofMinutes(1), () -> configuration.loadFromString("a = 2\nnested {\n  b = 2\n}\n"));
+        assertEquals(List.of("2, 2", "2, 2"), seen);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void snapshotsNeverSeePartOfALoad(final boolean lazy) throws Exception {
+        final DataScriptConfiguration configuration = DataScriptConfiguration.builder()
+            .file(directory.resolve("config.ds").toFile())
+            .lazy(lazy)
+            .build();
+        configuration.loadFromString(document(0));
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger torn = new AtomicInteger();
+        final AtomicInteger snapshots = new AtomicInteger();
+
+        final Thread reader = Thread.ofPlatform().start(() -> {
+            while (!done.get()) {
+                final ConfigSection snapshot = configuration.snapshot();
+                snapshots.incrementAndGet();
+
+                final int a = snapshot.section("first").getInt("v", -1);
+                if (a != snapshot.section("second").section("nested").getInt("v", -2)) torn.incrementAndGet();
+            }
+        });
+
+        for (int i = 1; i <= LOADS; i++) configuration.loadFromString(document(i));
+
+        done.set(true);
+        reader.join();
+
+        assertTrue(snapshots.get() > 0);
+        assertEquals(0, torn.get());
+    }
+
+    private static String document(final int value) {
+        return "first {\n  v = " + value + "\n}\nsecond {\n  nested {\n    v = " + value + "\n  }\n}\n";
+    }
+}
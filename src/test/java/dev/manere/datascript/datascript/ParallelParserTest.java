@@ -0,0 +1,118 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigNode;
+import dev.manere.datascript.api.IndexedSectionNode;
+import dev.manere.datascript.api.ScalarNode;
+import dev.manere.datascript.api.SectionNode;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParallelParserTest {
+    private static final String[] KEYS = {"a", "b", "c", "d", "list", "items"};
+    private static final String[] SEPARATORS = {"\n", "\r\n", "\r"};
+
+    @Test
+    void boundaryScanMatchesSequentialParse() throws IOException {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 2_000; i++) {
+            final char[] source = document(random).toCharArray();
+            final Object expected = sequential(source);
+
+            final IndexedSectionNode parallel = new IndexedSectionNode("root");
+            ParallelParser.parse(source, parallel);
+            assertEquals(expected, dump(parallel), () -> new String(source));
+
+            final IndexedSectionNode lazy = new IndexedSectionNode("root");
+            LazySectionNode.text(source, 0, source.length, lazy);
+            assertEquals(expected, dump(lazy), () -> new String(source));
+        }
+    }
+
+    @Test
+    void emptyAndUnclosedSections() throws IOException {
+        final char[] source = "x = 1\nempty {}\n}\nopen {\n  inner {\n    y = [1,\n\n 2]\n  }\n  z = 'a'".toCharArray();
+
+        final IndexedSectionNode parallel = new IndexedSectionNode("root");
+        ParallelParser.parse(source, parallel);
+
+        assertEquals(sequential(source), dump(parallel));
+    }
+
+    @NotNull
+    private static Object sequential(final char @NotNull [] source) throws IOException {
+        final IndexedSectionNode root = new IndexedSectionNode("root");
+
+        try (final DataScriptReader reader = new DataScriptReader(new CharArrayReader(source))) {
+            reader.accept(new DataScriptTreeBuilder(root));
+        }
+
+        return dump(root);
+    }
+
+    /**
+     * Converts a tree to sorted maps, since sections do not keep the document order.
+     */
+    @NotNull
+    private static Map<String, Object> dump(final @NotNull SectionNode section) {
+        final Map<String, Object> result = new TreeMap<>();
+
+        for (final ConfigNode node : section.nodes()) {
+            if (node instanceof SectionNode child) result.put(node.name(), dump(child));
+            else if (node instanceof ScalarNode<?> scalar) result.put(node.name(), scalar.value());
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private static String document(final @NotNull Random random) {
+        final String separator = SEPARATORS[random.nextInt(SEPARATORS.length)];
+        final StringBuilder builder = new StringBuilder();
+        int depth = 0;
+
+        for (int line = random.nextInt(30); line > 0; line--) {
+            builder.append(" ".repeat(random.nextInt(4)));
+            final String key = KEYS[random.nextInt(KEYS.length)];
+
+            switch (random.nextInt(10)) {
+                case 0, 1 -> {
+                    builder.append(key).append(" {");
+                    depth++;
+                }
+                case 2 -> builder.append(key).append(" {}");
+                case 3 -> {
+                    // Closing more sections than are open leaves stray braces at the top level.
+                    builder.append('}');
+                    depth = Math.max(0, depth - 1);
+                }
+                case 4 -> builder.append(key).append(" = [").append(random.nextInt(100)).append(", ").append(random.nextInt(100)).append(']');
+                // Lines inside a list that look like section braces must not open or close sections.
+                case 5 -> builder.append(key).append(" = [").append(separator)
+                    .append("  x {").append(separator)
+                    .append(separator)
+                    .append("  }").append(separator)
+                    .append("  y {}").append(separator)
+                    .append(']');
+                case 6 -> builder.append(key).append(" = []");
+                case 7 -> builder.append("junk line");
+                default -> builder.append(key).append(" = ").append(random.nextBoolean() ? random.nextInt(1000) : "'text'");
+            }
+
+            builder.append(separator);
+            if (random.nextInt(5) == 0) builder.append(separator);
+        }
+
+        // Sections left open at the end are closed by the end of the document.
+        if (random.nextBoolean()) for (; depth > 0; depth--) builder.append('}').append(separator);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package dev.manere.datascript.datascript;
+
+import dev.manere.datascript.api.ConfigSection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class SkipUnchangedSavesTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void listModifiedInPlaceIsSaved() throws IOException {
+        final File file = directory.resolve("config.ds").toFile();
+        Files.writeString(file.toPath(), "ids = [1, 2, 3]\nnested {\n  names = ['a']\n}\n");
+
+        final DataScriptConfiguration configuration = DataScriptConfiguration.builder()
+            .file(file)
+            .skipUnchangedSaves(true)
+            .build();
+        configuration.loadFromDisk();
+
+        final ConfigSection root = configuration.root();
+        final long hash = root.contentHash();
+
+        root.listValue("ids").add(4);
+        root.section("nested").listValue("names").add("b");
+        assertNotEquals(hash, root.contentHash());
+
+        configuration.saveToDisk();
+
+        final DataScriptConfiguration reloaded = DataScriptConfiguration.builder().file(file).build();
+        reloaded.loadFromDisk();
+
+        assertEquals(List.of(1, 2, 3, 4), reloaded.root().listValue("ids"));
+        assertEquals(List.of("a", "b"), reloaded.root().section("nested").listValue("names"));
+    }
+}